@@ -1,302 +1,638 @@
-package controllers;
-
-import controllers.dialogs.AddPokemonDialog;
-import controllers.dialogs.EditPokemonDialog;
-import controllers.dialogs.FightPokemonDialog;
-import database.DatabaseConnection;
-import models.*;
-import models.swing.PokemonTableModel;
-
-import javax.swing.*;
-import javax.swing.border.EmptyBorder;
-import javax.swing.table.TableRowSorter;
-import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-import java.awt.event.WindowAdapter;
-import java.awt.event.WindowEvent;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * La clase principal Pokedex se extiende de JFrame, representando la ventana principal de la aplicación.
- */
-public class Pokedex extends JFrame {
-    PokemonTableModel model;
-    private JTable pokemonJTable;
-    private JButton addButton;
-    private JButton editButton;
-    private JButton removeButton;
-    private JButton fightButton;
-    private JButton cloneButton;
-    private JMenuBar menuBar;
-
-    /**
-     * El constructor configura la ventana principal, incluyendo todos los componentes de la interfaz de usuario y escuchadores.
-     */
-    public Pokedex() {
-        super("Epic Pokedex");
-        setLayout(new BorderLayout());
-        createPokemonsJTable();
-        createAddButton();
-        createEditButton();
-        createRemoveButton();
-        createFightButton();
-        createCloneButton();
-        createMenuBar();
-
-        JPanel mainPanel = new JPanel(new BorderLayout());
-        mainPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
-        mainPanel.add(new JScrollPane(pokemonJTable), BorderLayout.CENTER);
-        JPanel buttonPanel = new JPanel(new GridLayout(5, 1, 5, 5));
-        buttonPanel.add(addButton);
-        buttonPanel.add(editButton);
-        buttonPanel.add(removeButton);
-        buttonPanel.add(fightButton);
-        buttonPanel.add(cloneButton);
-        mainPanel.add(buttonPanel, BorderLayout.EAST);
-        add(mainPanel, BorderLayout.CENTER);
-
-        addWindowListener(new WindowAdapter() {
-            @Override
-            public void windowClosing(WindowEvent e) {
-                super.windowClosing(e);
-                System.exit(0);
-            }
-        });
-        pack();
-
-    }
-
-    /**
-     * Este método crea y configura la JTable principal que muestra los Pokémon.
-     */
-    private void createPokemonsJTable() {
-        model = new PokemonTableModel();
-        model.addPokemon(new GrassPokemon("Bulbasaur", 1, 1, 1, 1));
-        model.addPokemon(new FirePokemon("Charmander", 1, 1, 1, 1));
-        model.addPokemon(new WaterPokemon("Squirtle", 1, 1, 1, 1));
-
-        pokemonJTable = new JTable(model);
-        pokemonJTable.setRowHeight(25);
-        pokemonJTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-
-        TableRowSorter<PokemonTableModel> sorter = createTableRowSorter();
-
-        pokemonJTable.setRowSorter(sorter);
-    }
-
-    /**
-     * Este método crea y devuelve un TableRowSorter para ordenar la JTable.
-     * @return El TableRowSorter creado.
-     */
-    private TableRowSorter<PokemonTableModel> createTableRowSorter() {
-        TableRowSorter<PokemonTableModel> sorter = new TableRowSorter<>(model);
-
-        List<RowSorter.SortKey> sortKeys = new ArrayList<>();
-        sortKeys.add(new RowSorter.SortKey(0, SortOrder.ASCENDING));
-        sorter.setSortKeys(sortKeys);
-
-        pokemonJTable.getTableHeader().addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                int column = pokemonJTable.getTableHeader().columnAtPoint(e.getPoint());
-
-                if (column >= 0) {
-                    List<RowSorter.SortKey> sortKeys = new ArrayList<>(sorter.getSortKeys());
-                    RowSorter.SortKey sortKey = sortKeys.isEmpty() ? null : sortKeys.get(0);
-
-                    if (sortKey != null && sortKey.getColumn() == column && sortKey.getSortOrder() == SortOrder.ASCENDING) {
-                        setSortOrderByColumn(column, sortKeys, sorter, SortOrder.DESCENDING);
-                    } else {
-                        setSortOrderByColumn(column, sortKeys, sorter, SortOrder.ASCENDING);
-                    }
-                }
-            }
-        });
-        return sorter;
-    }
-
-    /**
-     * Este método estático actualiza el orden de clasificación del TableRowSorter en función de la columna clicada.
-     * @param column La columna clicada.
-     * @param sortKeys Las claves de ordenación actuales.
-     * @param sorter El TableRowSorter.
-     * @param sortOrder El nuevo orden de clasificación.
-     */
-    private static void setSortOrderByColumn(int column, List<RowSorter.SortKey> sortKeys, TableRowSorter<PokemonTableModel> sorter, SortOrder sortOrder) {
-        sortKeys.clear();
-        sortKeys.add(new RowSorter.SortKey(column, sortOrder));
-        sorter.setSortKeys(sortKeys);
-    }
-
-
-    // Los siguientes métodos crean y configuran cada botón individual, incluyendo escuchadores y configuración de iconos:
-    private void createAddButton() {
-        addButton = new JButton("Add");
-        addButton.setForeground(Color.BLACK);
-        addButton.setFont(new Font("arial", Font.BOLD, 15));
-        addButton.setBackground(Color.LIGHT_GRAY);
-        ImageIcon addImageIcon = new ImageIcon("src/controllers/Pictures/anadir.png");
-        addButton.setIcon(new ImageIcon(addImageIcon.getImage().getScaledInstance(25, 25, Image.SCALE_SMOOTH)));
-        addButton.addActionListener(e -> new AddPokemonDialog(Pokedex.this, model).setVisible(true));
-    }
-    private void createEditButton() {
-        editButton = new JButton("Edit");
-        editButton.setForeground(Color.BLACK);
-        editButton.setFont(new Font("arial", Font.BOLD, 15));
-        editButton.setBackground(Color.LIGHT_GRAY);
-        ImageIcon editImageIcon = new ImageIcon("src/controllers/Pictures/edit.png");
-        editButton.setIcon(new ImageIcon(editImageIcon.getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH)));
-        editButton.addActionListener(e -> onClickEditButton());
-    }
-    private void createRemoveButton() {
-        removeButton = new JButton("Remove");
-        removeButton.setForeground(Color.BLACK);
-        removeButton.setFont(new Font("arial", Font.BOLD, 15));
-        removeButton.setBackground(Color.LIGHT_GRAY);
-        ImageIcon removeImageIcon = new ImageIcon("src/controllers/Pictures/borrar.png");
-        removeButton.setIcon(new ImageIcon(removeImageIcon.getImage().getScaledInstance(20, 20, Image.SCALE_SMOOTH)));
-        removeButton.addActionListener(e -> onClickRemoveButton());
-    }
-    private void createFightButton() {
-        fightButton = new JButton("Fight");
-        fightButton.setForeground(Color.BLACK);
-        fightButton.setFont(new Font("arial", Font.BOLD, 15));
-        fightButton.setBackground(Color.LIGHT_GRAY);
-        ImageIcon fightImageIcon = new ImageIcon("src/controllers/Pictures/fight.png");
-        fightButton.setIcon(new ImageIcon(fightImageIcon.getImage().getScaledInstance(20, 20, Image.SCALE_SMOOTH)));
-        fightButton.addActionListener(e -> onClickFightButton());
-
-    }
-    private void createCloneButton() {
-        cloneButton = new JButton("Clone");
-        cloneButton.setForeground(Color.BLACK);
-        cloneButton.setFont(new Font("arial", Font.BOLD, 15));
-        cloneButton.setBackground(Color.LIGHT_GRAY);
-        ImageIcon cloneImageIcon = new ImageIcon("src/controllers/Pictures/clone.png");
-        cloneButton.setIcon(new ImageIcon(cloneImageIcon.getImage().getScaledInstance(20, 20, Image.SCALE_SMOOTH)));
-        cloneButton.addActionListener(e -> onClickCloneButton());
-
-    }
-
-    /**
-     * Este método crea y configura la barra de menú, incluyendo todos los menús y elementos.
-     */
-    private void createMenuBar() {
-        JMenuBar menuBar = new JMenuBar();
-        setJMenuBar(menuBar);
-
-        JMenu fileMenu = new JMenu("File");
-        menuBar.add(fileMenu);
-
-        JMenuItem loadMenuItem = new JMenuItem("Load");
-        loadMenuItem.addActionListener(e -> onClickLoadMenuItem());
-        fileMenu.add(loadMenuItem);
-
-        JMenuItem saveMenuItem = new JMenuItem("Save");
-        saveMenuItem.addActionListener(e -> onClickSaveMenuItem());
-        fileMenu.add(saveMenuItem);
-    }
-
-    // Los siguientes métodos son llamados cuando cada botón correspondiente o elemento de menú es clicado:
-    private void onClickLoadMenuItem() {
-        try {
-            model.setPokemonList(DatabaseConnection.GetAllPokemons());
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(Pokedex.this,
-                    "Error loading pokemon list: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
-    }
-    private void onClickSaveMenuItem() {
-        try {
-            DatabaseConnection.SaveAllPokemons(model.getPokemonList());
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(Pokedex.this,
-                    "Error saving pokemon list: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
-
-    }
-    private void onClickEditButton() {
-        int selectedRow = pokemonJTable.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(Pokedex.this,
-                    "Please select a pokemon to edit.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
-        Pokemon selectedPokemon = model.getPokemon(selectedModelRowIndex);
-        new EditPokemonDialog(Pokedex.this, model, selectedPokemon).setVisible(true);
-
-    }
-    private void onClickRemoveButton() {
-        int selectedRow = pokemonJTable.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(Pokedex.this,
-                    "Please select a pokemon to remove.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        int option = JOptionPane.showConfirmDialog(Pokedex.this,
-                "Are you sure you want to delete this pokemon?",
-                "Confirmation",
-                JOptionPane.YES_NO_OPTION,
-                JOptionPane.WARNING_MESSAGE);
-        if (option == JOptionPane.OK_OPTION) {
-            int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
-            model.removePokemon(selectedModelRowIndex);
-        }
-
-    }
-    private void onClickFightButton() {
-        int selectedRow = pokemonJTable.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(Pokedex.this,
-                    "Please select a pokemon to fight.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
-        Pokemon selectedPokemon = model.getPokemon(selectedModelRowIndex);
-        new FightPokemonDialog(Pokedex.this, model, selectedPokemon).setVisible(true);
-
-    }
-    private void onClickCloneButton() {
-        int selectedRow = pokemonJTable.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(Pokedex.this,
-                    "Please select a pokemon to clone.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
-        Pokemon selectedPokemon = model.getPokemon(selectedModelRowIndex);
-        model.addPokemon(selectedPokemon.clone());
-
-    }
-
-    /**
-     * El método principal crea y muestra la ventana de Pokedex.
-     * @param args Los argumentos de la línea de comandos.
-     */
-    public static void main(String[] args) {
-            Pokedex pokedex = new Pokedex();
-            pokedex.setSize(800, 600);
-            pokedex.setResizable(false);
-            pokedex.setVisible(true);
-        }
-}
+package controllers;
+
+import controllers.dialogs.AddPokemonDialog;
+import controllers.dialogs.EditPokemonDialog;
+import controllers.dialogs.FightPokemonDialog;
+import controllers.workers.LoadPokemonsWorker;
+import controllers.workers.RosterFileWorker;
+import controllers.workers.SavePokemonsWorker;
+import controllers.workers.TournamentWorker;
+import database.DatabaseConnection;
+import models.*;
+import models.battle.TournamentStanding;
+import models.swing.PokemonNameFilter;
+import models.swing.PokemonRowSorter;
+import models.swing.PokemonTableModel;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * La clase principal Pokedex se extiende de JFrame, representando la ventana principal de la aplicación.
+ */
+public class Pokedex extends JFrame {
+    /**
+     * A partir de este número de filas, la lista se carga por páginas bajo demanda en lugar de entera.
+     */
+    private static final int PAGED_LOAD_THRESHOLD = 10_000;
+    private static final int PAGE_SIZE = 256;
+    private static final int MAX_CACHED_PAGES = 64;
+    private static final int PROGRESS_MAX = 100;
+    private static final int TOURNAMENT_LEADERBOARD_SIZE = 10;
+
+    PokemonTableModel model;
+    private JTable pokemonJTable;
+    private PokemonRowSorter tableRowSorter;
+    private JPanel searchPanel;
+    private JTextField searchField;
+    private JCheckBox fuzzySearchCheckBox;
+    private boolean searchRefreshPending;
+    private JButton addButton;
+    private JButton editButton;
+    private JButton removeButton;
+    private JButton fightButton;
+    private JButton cloneButton;
+    private JMenuBar menuBar;
+    private JMenuItem loadMenuItem;
+    private JMenuItem saveMenuItem;
+    private JMenuItem openRosterMenuItem;
+    private JMenuItem importRosterMenuItem;
+    private JMenuItem exportRosterMenuItem;
+    private JMenuItem tournamentMenuItem;
+    private JPanel statusPanel;
+    private JLabel statusLabel;
+    private JPanel progressPanel;
+    private JProgressBar progressBar;
+    private JButton cancelTaskButton;
+    private SwingWorker<?, ?> runningTask;
+
+    /**
+     * El constructor configura la ventana principal, incluyendo todos los componentes de la interfaz de usuario y escuchadores.
+     */
+    public Pokedex() {
+        super("Epic Pokedex");
+        setLayout(new BorderLayout());
+        createPokemonsJTable();
+        createAddButton();
+        createEditButton();
+        createRemoveButton();
+        createFightButton();
+        createCloneButton();
+        createMenuBar();
+        createStatusPanel();
+        createSearchPanel();
+
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
+        mainPanel.add(searchPanel, BorderLayout.NORTH);
+        mainPanel.add(new JScrollPane(pokemonJTable), BorderLayout.CENTER);
+        JPanel buttonPanel = new JPanel(new GridLayout(5, 1, 5, 5));
+        buttonPanel.add(addButton);
+        buttonPanel.add(editButton);
+        buttonPanel.add(removeButton);
+        buttonPanel.add(fightButton);
+        buttonPanel.add(cloneButton);
+        mainPanel.add(buttonPanel, BorderLayout.EAST);
+        mainPanel.add(statusPanel, BorderLayout.SOUTH);
+        add(mainPanel, BorderLayout.CENTER);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                super.windowClosing(e);
+                DatabaseConnection.CloseConnections();
+                System.exit(0);
+            }
+        });
+        pack();
+
+    }
+
+    /**
+     * Este método crea y configura la JTable principal que muestra los Pokémon.
+     */
+    private void createPokemonsJTable() {
+        model = new PokemonTableModel();
+        model.addAll(Arrays.asList(
+                new GrassPokemon("Bulbasaur", 1, 1, 1, 1),
+                new FirePokemon("Charmander", 1, 1, 1, 1),
+                new WaterPokemon("Squirtle", 1, 1, 1, 1)));
+
+        pokemonJTable = new JTable(model);
+        pokemonJTable.setRowHeight(25);
+        pokemonJTable.setDefaultRenderer(Object.class, new PokemonTableCellRenderer());
+        pokemonJTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        tableRowSorter = createTableRowSorter();
+
+        pokemonJTable.setRowSorter(tableRowSorter);
+    }
+
+    /**
+     * Este método crea y devuelve un PokemonRowSorter para ordenar la JTable.
+     * @return El PokemonRowSorter creado.
+     */
+    private PokemonRowSorter createTableRowSorter() {
+        PokemonRowSorter sorter = new PokemonRowSorter(model) {
+            @Override
+            public void setSortKeys(List<? extends SortKey> sortKeys) {
+                // Ordenar necesita todas las filas: si se están cargando por páginas, se cargan antes
+                if (sortKeys != null && !sortKeys.isEmpty()) {
+                    getModel().materialize();
+                }
+                super.setSortKeys(sortKeys);
+            }
+        };
+
+        List<RowSorter.SortKey> sortKeys = new ArrayList<>();
+        sortKeys.add(new RowSorter.SortKey(0, SortOrder.ASCENDING));
+        sorter.setSortKeys(sortKeys);
+
+        pokemonJTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = pokemonJTable.getTableHeader().columnAtPoint(e.getPoint());
+
+                if (column >= 0) {
+                    List<RowSorter.SortKey> sortKeys = new ArrayList<>(sorter.getSortKeys());
+                    RowSorter.SortKey sortKey = sortKeys.isEmpty() ? null : sortKeys.get(0);
+
+                    if (sortKey != null && sortKey.getColumn() == column && sortKey.getSortOrder() == SortOrder.ASCENDING) {
+                        setSortOrderByColumn(column, sortKeys, sorter, SortOrder.DESCENDING);
+                    } else {
+                        setSortOrderByColumn(column, sortKeys, sorter, SortOrder.ASCENDING);
+                    }
+                }
+            }
+        });
+        return sorter;
+    }
+
+    /**
+     * Este método estático actualiza el orden de clasificación del PokemonRowSorter en función de la columna clicada.
+     * @param column La columna clicada.
+     * @param sortKeys Las claves de ordenación actuales.
+     * @param sorter El PokemonRowSorter.
+     * @param sortOrder El nuevo orden de clasificación.
+     */
+    private static void setSortOrderByColumn(int column, List<RowSorter.SortKey> sortKeys, PokemonRowSorter sorter, SortOrder sortOrder) {
+        sortKeys.clear();
+        sortKeys.add(new RowSorter.SortKey(column, sortOrder));
+        sorter.setSortKeys(sortKeys);
+    }
+
+
+    // Los siguientes métodos crean y configuran cada botón individual, incluyendo escuchadores y configuración de iconos:
+    private void createAddButton() {
+        addButton = new JButton("Add");
+        addButton.setForeground(Color.BLACK);
+        addButton.setFont(new Font("arial", Font.BOLD, 15));
+        addButton.setBackground(Color.LIGHT_GRAY);
+        ImageIcon addImageIcon = new ImageIcon("src/controllers/Pictures/anadir.png");
+        addButton.setIcon(new ImageIcon(addImageIcon.getImage().getScaledInstance(25, 25, Image.SCALE_SMOOTH)));
+        addButton.addActionListener(e -> new AddPokemonDialog(Pokedex.this, model).setVisible(true));
+    }
+    private void createEditButton() {
+        editButton = new JButton("Edit");
+        editButton.setForeground(Color.BLACK);
+        editButton.setFont(new Font("arial", Font.BOLD, 15));
+        editButton.setBackground(Color.LIGHT_GRAY);
+        ImageIcon editImageIcon = new ImageIcon("src/controllers/Pictures/edit.png");
+        editButton.setIcon(new ImageIcon(editImageIcon.getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH)));
+        editButton.addActionListener(e -> onClickEditButton());
+    }
+    private void createRemoveButton() {
+        removeButton = new JButton("Remove");
+        removeButton.setForeground(Color.BLACK);
+        removeButton.setFont(new Font("arial", Font.BOLD, 15));
+        removeButton.setBackground(Color.LIGHT_GRAY);
+        ImageIcon removeImageIcon = new ImageIcon("src/controllers/Pictures/borrar.png");
+        removeButton.setIcon(new ImageIcon(removeImageIcon.getImage().getScaledInstance(20, 20, Image.SCALE_SMOOTH)));
+        removeButton.addActionListener(e -> onClickRemoveButton());
+    }
+    private void createFightButton() {
+        fightButton = new JButton("Fight");
+        fightButton.setForeground(Color.BLACK);
+        fightButton.setFont(new Font("arial", Font.BOLD, 15));
+        fightButton.setBackground(Color.LIGHT_GRAY);
+        ImageIcon fightImageIcon = new ImageIcon("src/controllers/Pictures/fight.png");
+        fightButton.setIcon(new ImageIcon(fightImageIcon.getImage().getScaledInstance(20, 20, Image.SCALE_SMOOTH)));
+        fightButton.addActionListener(e -> onClickFightButton());
+
+    }
+    private void createCloneButton() {
+        cloneButton = new JButton("Clone");
+        cloneButton.setForeground(Color.BLACK);
+        cloneButton.setFont(new Font("arial", Font.BOLD, 15));
+        cloneButton.setBackground(Color.LIGHT_GRAY);
+        ImageIcon cloneImageIcon = new ImageIcon("src/controllers/Pictures/clone.png");
+        cloneButton.setIcon(new ImageIcon(cloneImageIcon.getImage().getScaledInstance(20, 20, Image.SCALE_SMOOTH)));
+        cloneButton.addActionListener(e -> onClickCloneButton());
+
+    }
+
+    /**
+     * Este método crea y configura la barra de menú, incluyendo todos los menús y elementos.
+     */
+    private void createMenuBar() {
+        JMenuBar menuBar = new JMenuBar();
+        setJMenuBar(menuBar);
+
+        JMenu fileMenu = new JMenu("File");
+        menuBar.add(fileMenu);
+
+        loadMenuItem = new JMenuItem("Load");
+        loadMenuItem.addActionListener(e -> onClickLoadMenuItem());
+        fileMenu.add(loadMenuItem);
+
+        saveMenuItem = new JMenuItem("Save");
+        saveMenuItem.addActionListener(e -> onClickSaveMenuItem());
+        fileMenu.add(saveMenuItem);
+        fileMenu.addSeparator();
+
+        openRosterMenuItem = new JMenuItem("Open roster file...");
+        openRosterMenuItem.addActionListener(e -> onClickOpenRosterMenuItem());
+        fileMenu.add(openRosterMenuItem);
+
+        importRosterMenuItem = new JMenuItem("Import roster file...");
+        importRosterMenuItem.addActionListener(e -> onClickImportRosterMenuItem());
+        fileMenu.add(importRosterMenuItem);
+
+        exportRosterMenuItem = new JMenuItem("Export roster file...");
+        exportRosterMenuItem.addActionListener(e -> onClickExportRosterMenuItem());
+        fileMenu.add(exportRosterMenuItem);
+
+        JMenu battleMenu = new JMenu("Battle");
+        menuBar.add(battleMenu);
+
+        tournamentMenuItem = new JMenuItem("Tournament");
+        tournamentMenuItem.addActionListener(e -> onClickTournamentMenuItem());
+        battleMenu.add(tournamentMenuItem);
+    }
+
+    /**
+     * Este método crea el panel de estado, con un texto para el resultado de la última tarea y la barra de progreso
+     * y el botón para cancelar las tareas en segundo plano, que solo se muestran mientras hay una tarea en curso.
+     */
+    private void createStatusPanel() {
+        progressBar = new JProgressBar(0, PROGRESS_MAX);
+        progressBar.setStringPainted(true);
+
+        cancelTaskButton = new JButton("Cancel");
+        cancelTaskButton.addActionListener(e -> {
+            if (runningTask != null) {
+                runningTask.cancel(false);
+            }
+        });
+
+        progressPanel = new JPanel(new BorderLayout(5, 5));
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(cancelTaskButton, BorderLayout.EAST);
+        progressPanel.setVisible(false);
+
+        statusLabel = new JLabel(" ");
+        statusPanel = new JPanel(new BorderLayout(5, 5));
+        statusPanel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(progressPanel, BorderLayout.EAST);
+    }
+
+    /**
+     * Este método crea el panel de búsqueda, con un campo que filtra la tabla por nombre mientras se escribe
+     * y una casilla para incluir los nombres parecidos.
+     */
+    private void createSearchPanel() {
+        searchField = new JTextField(20);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                applySearchFilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                applySearchFilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                applySearchFilter();
+            }
+        });
+
+        fuzzySearchCheckBox = new JCheckBox("Fuzzy");
+        fuzzySearchCheckBox.addActionListener(e -> applySearchFilter());
+
+        // Las coincidencias se calculan al crear el filtro: si cambian las filas, se vuelve a buscar
+        model.addTableModelListener(e -> {
+            if (!searchRefreshPending && !searchField.getText().trim().isEmpty()) {
+                searchRefreshPending = true;
+                SwingUtilities.invokeLater(this::refreshSearchFilter);
+            }
+        });
+
+        searchPanel = new JPanel(new BorderLayout(5, 5));
+        searchPanel.setBorder(new EmptyBorder(0, 0, 10, 0));
+        searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        searchPanel.add(fuzzySearchCheckBox, BorderLayout.EAST);
+    }
+
+    /**
+     * Este método filtra la tabla con el texto del campo de búsqueda, o quita el filtro si está vacío,
+     * y muestra el número de coincidencias.
+     */
+    private void applySearchFilter() {
+        applySearchFilter(true);
+    }
+
+    /**
+     * Este método vuelve a buscar después de un cambio de las filas, sin tapar el estado de la última tarea.
+     * No hace nada mientras las filas se cargan por páginas, porque buscar cargaría todas en el hilo de eventos,
+     * ni mientras se cargan por partes, porque se rehace una vez al terminar la carga.
+     */
+    private void refreshSearchFilter() {
+        searchRefreshPending = false;
+        if (model.isPaged() || runningTask instanceof LoadPokemonsWorker) {
+            return;
+        }
+        applySearchFilter(false);
+    }
+
+    /**
+     * Este método filtra la tabla con el texto del campo de búsqueda, o quita el filtro si está vacío.
+     * @param showMatchCount true para mostrar en la barra de estado el número de coincidencias.
+     */
+    private void applySearchFilter(boolean showMatchCount) {
+        searchRefreshPending = false;
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            tableRowSorter.setRowFilter(null);
+            return;
+        }
+        PokemonNameFilter filter = new PokemonNameFilter(model, query, fuzzySearchCheckBox.isSelected());
+        tableRowSorter.setRowFilter(filter);
+        if (showMatchCount) {
+            statusLabel.setText(filter.getMatchCount() + " pokemon match \"" + query + "\"");
+        }
+    }
+
+    /**
+     * Este método ejecuta una tarea en segundo plano mostrando su progreso. Mientras se ejecuta, se desactivan
+     * las acciones que modifican la lista. Al terminar, si no se ha cancelado, se llama a onSuccess con el resultado
+     * en el hilo de eventos, o se muestra el error.
+     * @param task La tarea a ejecutar.
+     * @param errorMessage El mensaje que precede al error si la tarea falla.
+     * @param onSuccess La acción a ejecutar con el resultado de la tarea.
+     * @param <T> El tipo del resultado de la tarea.
+     */
+    private <T> void runInBackground(SwingWorker<T, ?> task, String errorMessage, Consumer<T> onSuccess) {
+        runInBackground(task, errorMessage, true, onSuccess);
+    }
+
+    /**
+     * Este método ejecuta una tarea en segundo plano como {@link #runInBackground(SwingWorker, String, Consumer)},
+     * pero permite seguir editando la lista si la tarea solo lee una copia de las filas.
+     * @param task La tarea a ejecutar.
+     * @param errorMessage El mensaje que precede al error si la tarea falla.
+     * @param locksRoster true si la tarea usa el modelo de la tabla y no se puede editar la lista mientras se ejecuta.
+     * @param onSuccess La acción a ejecutar con el resultado de la tarea.
+     * @param <T> El tipo del resultado de la tarea.
+     */
+    private <T> void runInBackground(SwingWorker<T, ?> task, String errorMessage, boolean locksRoster, Consumer<T> onSuccess) {
+        runningTask = task;
+        setBusy(true, locksRoster);
+        task.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                progressBar.setValue((Integer) event.getNewValue());
+            } else if ("state".equals(event.getPropertyName()) && event.getNewValue() == SwingWorker.StateValue.DONE) {
+                runningTask = null;
+                setBusy(false, true);
+                if (task.isCancelled()) {
+                    statusLabel.setText("Cancelled");
+                    return;
+                }
+                try {
+                    onSuccess.accept(task.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    statusLabel.setText(" ");
+                    JOptionPane.showMessageDialog(Pokedex.this,
+                            errorMessage + cause.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+        task.execute();
+    }
+
+    /**
+     * Este método activa o desactiva las acciones que no se pueden usar mientras hay una tarea en segundo plano.
+     * @param busy true si hay una tarea en curso.
+     * @param locksRoster true si tampoco se puede editar la lista mientras dura la tarea.
+     */
+    private void setBusy(boolean busy, boolean locksRoster) {
+        boolean editable = !busy || !locksRoster;
+        progressBar.setValue(0);
+        progressPanel.setVisible(busy);
+        loadMenuItem.setEnabled(!busy);
+        saveMenuItem.setEnabled(!busy);
+        openRosterMenuItem.setEnabled(!busy);
+        importRosterMenuItem.setEnabled(!busy);
+        exportRosterMenuItem.setEnabled(!busy);
+        tournamentMenuItem.setEnabled(!busy);
+        addButton.setEnabled(editable);
+        editButton.setEnabled(editable);
+        removeButton.setEnabled(editable);
+        cloneButton.setEnabled(editable);
+    }
+
+    // Los siguientes métodos son llamados cuando cada botón correspondiente o elemento de menú es clicado:
+    private void onClickLoadMenuItem() {
+        loadFromDatabase("");
+    }
+
+    /**
+     * Este método carga en segundo plano la lista de la base de datos, por partes o por páginas según su tamaño.
+     * @param statusPrefix El texto que precede al mensaje de estado al terminar.
+     */
+    private void loadFromDatabase(String statusPrefix) {
+        LoadPokemonsWorker worker = new LoadPokemonsWorker(model, PAGED_LOAD_THRESHOLD);
+        runInBackground(worker,
+                "Error loading pokemon list: ",
+                pageSource -> {
+                    if (pageSource != null) {
+                        // Sin orden ni búsqueda, la tabla solo pide las filas visibles
+                        pokemonJTable.getRowSorter().setSortKeys(null);
+                        searchField.setText("");
+                        model.setPokemonPages(pageSource, PAGE_SIZE, MAX_CACHED_PAGES);
+                    }
+                    statusLabel.setText(statusPrefix + "Loaded " + model.getRowCount() + " pokemon");
+                });
+        // Mientras llegan las partes no se vuelve a buscar: se busca una vez al terminar, aunque se cancele
+        worker.addPropertyChangeListener(event -> {
+            if ("state".equals(event.getPropertyName()) && event.getNewValue() == SwingWorker.StateValue.DONE) {
+                refreshSearchFilter();
+            }
+        });
+    }
+    private void onClickSaveMenuItem() {
+        runInBackground(new SavePokemonsWorker(model),
+                "Error saving pokemon list: ",
+                statistics -> statusLabel.setText(statistics == null ? "Nothing to save" : "Saved " + statistics));
+
+    }
+    private void onClickOpenRosterMenuItem() {
+        Path path = chooseRosterFile(false);
+        if (path == null) {
+            return;
+        }
+        runInBackground(new RosterFileWorker<>(() -> DatabaseConnection.OpenRosterFile(path)),
+                "Error opening roster file: ",
+                roster -> {
+                    // El fichero no es la base de datos: al guardar se escribe entero
+                    pokemonJTable.getRowSorter().setSortKeys(null);
+                    searchField.setText("");
+                    model.setPokemonPages(roster, PAGE_SIZE, MAX_CACHED_PAGES, false);
+                    statusLabel.setText("Opened " + roster);
+                });
+    }
+
+    private void onClickImportRosterMenuItem() {
+        Path path = chooseRosterFile(false);
+        if (path == null) {
+            return;
+        }
+        runInBackground(new RosterFileWorker<>(() -> DatabaseConnection.ImportRosterFile(path)),
+                "Error importing roster file: ",
+                statistics -> {
+                    // La base de datos ya no tiene las filas de la tabla: se vuelve a cargar, y si la carga falla,
+                    // el siguiente guardado escribe la tabla entera en lugar de mezclarla con lo importado
+                    model.markDetached();
+                    loadFromDatabase("Imported " + statistics + " into the database. ");
+                });
+    }
+
+    private void onClickExportRosterMenuItem() {
+        Path path = chooseRosterFile(true);
+        if (path == null) {
+            return;
+        }
+        runInBackground(new RosterFileWorker<>(() -> DatabaseConnection.ExportRosterFile(path)),
+                "Error exporting roster file: ",
+                rows -> statusLabel.setText("Exported " + rows + " pokemon from the database to " + path.getFileName()));
+    }
+
+    /**
+     * Este método pide al usuario un fichero de roster.
+     * @param save true para elegir dónde guardar, false para elegir un fichero existente.
+     * @return La ruta elegida, o null si el usuario cancela.
+     */
+    private Path chooseRosterFile(boolean save) {
+        JFileChooser chooser = new JFileChooser();
+        int option = save ? chooser.showSaveDialog(this) : chooser.showOpenDialog(this);
+        return option == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile().toPath() : null;
+    }
+
+    private void onClickTournamentMenuItem() {
+        // El torneo lee una copia de las filas, así que se puede seguir editando la lista mientras se juega
+        runInBackground(new TournamentWorker(model),
+                "Error running tournament: ",
+                false,
+                result -> {
+                    statusLabel.setText("Tournament: " + result);
+                    StringBuilder leaderboard = new StringBuilder();
+                    for (TournamentStanding standing : result.getLeaderboard(TOURNAMENT_LEADERBOARD_SIZE)) {
+                        leaderboard.append(standing).append('\n');
+                    }
+                    JOptionPane.showMessageDialog(Pokedex.this,
+                            leaderboard.toString(),
+                            "Tournament leaderboard",
+                            JOptionPane.INFORMATION_MESSAGE);
+                });
+    }
+    private void onClickEditButton() {
+        int selectedRow = pokemonJTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(Pokedex.this,
+                    "Please select a pokemon to edit.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
+        Pokemon selectedPokemon = model.getPokemon(selectedModelRowIndex);
+        long selectedRowId = model.getRowId(selectedModelRowIndex);
+        new EditPokemonDialog(Pokedex.this, model, selectedRowId, selectedPokemon).setVisible(true);
+
+    }
+    private void onClickRemoveButton() {
+        int selectedRow = pokemonJTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(Pokedex.this,
+                    "Please select a pokemon to remove.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        int option = JOptionPane.showConfirmDialog(Pokedex.this,
+                "Are you sure you want to delete this pokemon?",
+                "Confirmation",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE);
+        if (option == JOptionPane.OK_OPTION) {
+            int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
+            model.removePokemon(selectedModelRowIndex);
+        }
+
+    }
+    private void onClickFightButton() {
+        int selectedRow = pokemonJTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(Pokedex.this,
+                    "Please select a pokemon to fight.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
+        Pokemon selectedPokemon = model.getPokemon(selectedModelRowIndex);
+        new FightPokemonDialog(Pokedex.this, model, selectedPokemon).setVisible(true);
+
+    }
+    private void onClickCloneButton() {
+        int selectedRow = pokemonJTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(Pokedex.this,
+                    "Please select a pokemon to clone.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        int selectedModelRowIndex = pokemonJTable.convertRowIndexToModel(selectedRow);
+        Pokemon selectedPokemon = model.getPokemon(selectedModelRowIndex);
+        model.addPokemon(selectedPokemon.clone());
+
+    }
+
+    /**
+     * El método principal crea y muestra la ventana de Pokedex.
+     * @param args Los argumentos de la línea de comandos.
+     */
+    public static void main(String[] args) {
+            Pokedex pokedex = new Pokedex();
+            pokedex.setSize(800, 600);
+            pokedex.setResizable(false);
+            pokedex.setVisible(true);
+        }
+}
@@ -0,0 +1,499 @@
+package controllers;
+
+import database.DatabaseConnection;
+import database.RosterFileWriter;
+import database.WriteStatistics;
+import models.Pokemon;
+import models.PokemonType;
+import models.battle.BattleReplay;
+import models.battle.MonteCarloSimulator;
+import models.battle.Tournament;
+import models.battle.TournamentResult;
+import models.battle.TournamentStanding;
+import models.roster.ColumnarRoster;
+import models.swing.PokemonPage;
+import models.swing.PokemonPageSource;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Punto de entrada sin interfaz gráfica de la Pokedex, para usarla desde la línea de comandos o en servidores
+ * sin pantalla. Solo usa los paquetes models y database, así que no carga AWT ni Swing y arranca bastante antes
+ * que la ventana.
+ * <p>
+ * Los Pokemon se leen de la base de datos ({@code --db}, por defecto), de un fichero de roster ({@code --file PATH})
+ * o se generan al azar ({@code --random N}). Las filas se leen por páginas y se escriben en la salida estándar
+ * a medida que llegan, separadas por tabuladores, así que los resultados se pueden encadenar con otros comandos
+ * sin cargar todo el roster en memoria. Con {@code --time} se escribe en la salida de error cuánto ha tardado
+ * en arrancar la máquina virtual, en escribir la primera fila y en terminar.
+ * <p>
+ * Comandos:
+ * <ul>
+ * <li>{@code list [--limit N]}: escribe los Pokemon.</li>
+ * <li>{@code query TEXT [--type TYPE] [--limit N]}: escribe los Pokemon cuyo nombre empieza por el texto,
+ * sin distinguir mayúsculas, y opcionalmente de un tipo.</li>
+ * <li>{@code fight NAME NAME [--simulate]}: resuelve un combate entre los primeros Pokemon con esos nombres y,
+ * con {@code --simulate}, estima la probabilidad de victoria con daño aleatorio.</li>
+ * <li>{@code tournament [--top K]}: juega un torneo de todos contra todos y escribe la clasificación.</li>
+ * <li>{@code import FILE}: sustituye los Pokemon de la base de datos por los de un fichero de roster.</li>
+ * <li>{@code export FILE}: escribe los Pokemon en un fichero de roster.</li>
+ * </ul>
+ */
+public class PokedexCli {
+
+    private static final String USAGE = "Usage: PokedexCli [--db | --file PATH | --random N] [--time] COMMAND [ARGS]\n"
+            + "Commands:\n"
+            + "  list [--limit N]                  Print the pokemon as tab-separated rows\n"
+            + "  query TEXT [--type T] [--limit N] Print the pokemon whose name starts with TEXT\n"
+            + "  fight NAME NAME [--simulate]      Fight two pokemon, optionally estimating the win probability\n"
+            + "  tournament [--top K]              Play a round-robin tournament and print the leaderboard\n"
+            + "  import FILE                       Replace the database with a roster file\n"
+            + "  export FILE                       Write the pokemon to a roster file";
+
+    private static final int PAGE_SIZE = 4096;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final PrintStream out;
+    private final Path file;
+    private final int randomSize;
+    private long firstOutputMillis;
+
+    private PokedexCli(PrintStream out, Path file, int randomSize) {
+        this.out = out;
+        this.file = file;
+        this.randomSize = randomSize;
+    }
+
+    /**
+     * Ejecuta el comando indicado y termina con 0 si todo ha ido bien, 1 si ha fallado o 2 si los argumentos
+     * no son válidos.
+     *
+     * @param args Los argumentos de la línea de comandos.
+     */
+    public static void main(String[] args) {
+        long mainMillis = System.currentTimeMillis();
+        Path file = null;
+        int randomSize = -1;
+        boolean time = false;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                switch (args[i]) {
+                    case "--db":
+                        file = null;
+                        randomSize = -1;
+                        break;
+                    case "--file":
+                        file = Paths.get(args[++i]);
+                        break;
+                    case "--random":
+                        randomSize = Integer.parseInt(args[++i]);
+                        break;
+                    case "--time":
+                        time = true;
+                        break;
+                    default:
+                        usage("Unknown option: " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            usage("Invalid option " + args[i - 1]);
+        }
+        if (i == args.length) {
+            usage(null);
+        }
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out),
+                OUTPUT_BUFFER_SIZE), false);
+        PokedexCli cli = new PokedexCli(out, file, randomSize);
+        int status = 0;
+        try {
+            cli.run(args[i], args, i + 1);
+        } catch (IllegalArgumentException e) {
+            out.flush();
+            usage(e.getMessage());
+        } catch (SQLException | IOException | RuntimeException e) {
+            out.flush();
+            System.err.println("Error: " + e);
+            status = 1;
+        } finally {
+            out.flush();
+            if (randomSize < 0 && file == null) {
+                DatabaseConnection.CloseConnections();
+            }
+        }
+        if (time) {
+            cli.printTimes(mainMillis);
+        }
+        System.exit(status);
+    }
+
+    private static void usage(String message) {
+        if (message != null) {
+            System.err.println(message);
+        }
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /**
+     * Ejecuta un comando.
+     *
+     * @param command El nombre del comando.
+     * @param args    Todos los argumentos de la línea de comandos.
+     * @param from    La posición del primer argumento del comando.
+     */
+    private void run(String command, String[] args, int from) throws SQLException, IOException {
+        Arguments arguments = new Arguments(args, from);
+        switch (command) {
+            case "list":
+                print(null, null, arguments.option("--limit", Integer.MAX_VALUE));
+                break;
+            case "query": {
+                String text = arguments.next("TEXT").toLowerCase(Locale.ROOT);
+                String typeName = arguments.option("--type");
+                PokemonType type = null;
+                if (typeName != null) {
+                    type = parseType(typeName);
+                }
+                print(text, type, arguments.option("--limit", Integer.MAX_VALUE));
+                break;
+            }
+            case "fight":
+                fight(arguments.next("NAME"), arguments.next("NAME"), arguments.flag("--simulate"));
+                break;
+            case "tournament":
+                tournament(arguments.option("--top", 10));
+                break;
+            case "import":
+                importRoster(Paths.get(arguments.next("FILE")));
+                break;
+            case "export":
+                exportRoster(Paths.get(arguments.next("FILE")));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
+        }
+        arguments.checkAllUsed();
+    }
+
+    /**
+     * Escribe las filas que coinciden, página a página. Deja de leer si la salida se cierra, por ejemplo al encadenar
+     * con {@code head}.
+     */
+    private void print(String prefix, PokemonType type, int limit) throws SQLException, IOException {
+        PokemonPageSource source = openSource();
+        out.println("id\tname\ttype\thealth\tattack\tdefense\tspeed");
+        int printed = 0;
+        PokemonPage page = source.loadPageAt(0, PAGE_SIZE);
+        while (page.size() > 0 && printed < limit) {
+            for (int i = 0; i < page.size() && printed < limit; i++) {
+                Pokemon pokemon = page.getPokemon(i);
+                if (matches(pokemon, prefix, type)) {
+                    printRow(page.getId(i), pokemon);
+                    printed++;
+                }
+            }
+            if (out.checkError() || page.size() < PAGE_SIZE) {
+                break;
+            }
+            page = source.loadPageAfter(page.getLastId(), PAGE_SIZE);
+        }
+    }
+
+    private static boolean matches(Pokemon pokemon, String prefix, PokemonType type) {
+        if (type != null && pokemon.getType() != type) {
+            return false;
+        }
+        return prefix == null || pokemon.getName().regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private void printRow(long id, Pokemon pokemon) {
+        if (firstOutputMillis == 0) {
+            firstOutputMillis = System.currentTimeMillis();
+        }
+        PokemonType type = pokemon.getType();
+        out.print(id);
+        out.print('\t');
+        out.print(pokemon.getName());
+        out.print('\t');
+        out.print(type == null ? "?" : type.getDisplayName());
+        out.print('\t');
+        out.print(pokemon.getHealth());
+        out.print('\t');
+        out.print(pokemon.getAttack());
+        out.print('\t');
+        out.print(pokemon.getDefense());
+        out.print('\t');
+        out.println(pokemon.getSpeed());
+    }
+
+    /**
+     * Resuelve un combate entre los primeros Pokemon con los nombres indicados, sin distinguir mayúsculas.
+     */
+    private void fight(String firstName, String secondName, boolean simulate) throws SQLException, IOException {
+        Pokemon first = null;
+        Pokemon second = null;
+        PokemonPageSource source = openSource();
+        PokemonPage page = source.loadPageAt(0, PAGE_SIZE);
+        while (page.size() > 0 && (first == null || second == null)) {
+            for (int i = 0; i < page.size(); i++) {
+                Pokemon pokemon = page.getPokemon(i);
+                if (first == null && pokemon.getName().equalsIgnoreCase(firstName)) {
+                    first = pokemon;
+                } else if (second == null && pokemon.getName().equalsIgnoreCase(secondName)) {
+                    second = pokemon;
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            page = source.loadPageAfter(page.getLastId(), PAGE_SIZE);
+        }
+        if (first == null || second == null) {
+            throw new IllegalStateException("Pokemon not found: " + (first == null ? firstName : secondName));
+        }
+
+        BattleReplay replay = new BattleReplay(first, second);
+        Pokemon winner = replay.getWinner();
+        firstOutputMillis = System.currentTimeMillis();
+        if (winner == null) {
+            out.println(first.getName() + " vs " + second.getName() + ": neither pokemon can hurt the other. It's a draw!");
+        } else {
+            out.println(first.getName() + " vs " + second.getName() + ": " + winner.getName()
+                    + " won the fight in " + replay.getTurnCount() + " turns");
+        }
+        if (simulate) {
+            out.println(new MonteCarloSimulator().simulate(first, second, MonteCarloSimulator.ESTIMATE_HALF_WIDTH,
+                    MonteCarloSimulator.ESTIMATE_MAX_SIMULATIONS, System.nanoTime()));
+        }
+    }
+
+    private void tournament(int top) throws SQLException, IOException {
+        ColumnarRoster roster;
+        if (randomSize >= 0) {
+            roster = TournamentRunner.createRandomRoster(randomSize);
+        } else if (file == null) {
+            roster = DatabaseConnection.GetPokemonRoster();
+        } else {
+            roster = readRoster(openSource());
+        }
+        TournamentResult result = new Tournament(roster, false).run();
+        firstOutputMillis = System.currentTimeMillis();
+        out.println(result);
+        for (TournamentStanding standing : result.getLeaderboard(top)) {
+            out.println(standing);
+        }
+    }
+
+    private void importRoster(Path path) throws SQLException, IOException {
+        if (file != null || randomSize >= 0) {
+            throw new IllegalArgumentException("import always writes to the database; do not give a source");
+        }
+        WriteStatistics statistics = DatabaseConnection.ImportRosterFile(path);
+        firstOutputMillis = System.currentTimeMillis();
+        out.println("Imported " + statistics + " into the database");
+    }
+
+    /**
+     * Escribe los Pokemon en un fichero de roster. Desde la base de datos se usa la exportación de la base de datos;
+     * desde otra fuente se copian las páginas al fichero.
+     */
+    private void exportRoster(Path path) throws SQLException, IOException {
+        int rows;
+        if (file == null && randomSize < 0) {
+            rows = DatabaseConnection.ExportRosterFile(path);
+        } else {
+            PokemonPageSource source = openSource();
+            try (RosterFileWriter writer = new RosterFileWriter(path, source.getRowCount())) {
+                PokemonPage page = source.loadPageAt(0, PAGE_SIZE);
+                while (page.size() > 0) {
+                    for (int i = 0; i < page.size(); i++) {
+                        Pokemon pokemon = page.getPokemon(i);
+                        writer.add(page.getId(i), pokemon.getName(), pokemon.getType(), pokemon.getHealth(),
+                                pokemon.getAttack(), pokemon.getDefense(), pokemon.getSpeed());
+                    }
+                    if (page.size() < PAGE_SIZE) {
+                        break;
+                    }
+                    page = source.loadPageAfter(page.getLastId(), PAGE_SIZE);
+                }
+                rows = writer.getWritten();
+            }
+        }
+        firstOutputMillis = System.currentTimeMillis();
+        out.println("Exported " + rows + " pokemon to " + path);
+    }
+
+    /**
+     * Abre la fuente de los Pokemon elegida con las opciones: la base de datos, un fichero de roster o un roster
+     * aleatorio, siempre el mismo para el mismo tamaño.
+     */
+    private PokemonPageSource openSource() throws SQLException, IOException {
+        if (randomSize >= 0) {
+            return new RosterPageSource(TournamentRunner.createRandomRoster(randomSize));
+        }
+        if (file != null) {
+            return DatabaseConnection.OpenRosterFile(file);
+        }
+        return DatabaseConnection.OpenPokemonPages();
+    }
+
+    private static ColumnarRoster readRoster(PokemonPageSource source) {
+        ColumnarRoster roster = new ColumnarRoster(source.getRowCount());
+        PokemonPage page = source.loadPageAt(0, PAGE_SIZE);
+        while (page.size() > 0) {
+            for (int i = 0; i < page.size(); i++) {
+                roster.add(page.getPokemon(i));
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            page = source.loadPageAfter(page.getLastId(), PAGE_SIZE);
+        }
+        return roster;
+    }
+
+    private static PokemonType parseType(String name) {
+        for (PokemonType type : PokemonType.values()) {
+            if (type.name().equalsIgnoreCase(name) || type.getDisplayName().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown type: " + name);
+    }
+
+    /**
+     * Escribe en la salida de error los tiempos de arranque y del comando, y las clases cargadas.
+     * Se mide al terminar para que leer los tiempos de la máquina virtual no cuente en el arranque.
+     */
+    private void printTimes(long mainMillis) {
+        long endMillis = System.currentTimeMillis();
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.err.printf("JVM start to main: %d ms, main to first output: %s, total: %d ms, %d classes loaded%n",
+                mainMillis - jvmStartMillis,
+                firstOutputMillis == 0 ? "n/a" : (firstOutputMillis - mainMillis) + " ms",
+                endMillis - jvmStartMillis,
+                ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount());
+    }
+
+    /**
+     * Argumentos de un comando: los posicionales en orden y las opciones en cualquier posición.
+     */
+    private static class Arguments {
+        private final String[] args;
+        private final boolean[] used;
+        private final int from;
+
+        Arguments(String[] args, int from) {
+            this.args = args;
+            this.used = new boolean[args.length];
+            this.from = from;
+        }
+
+        String next(String name) {
+            for (int i = from; i < args.length; i++) {
+                if (!used[i] && !args[i].startsWith("--")) {
+                    used[i] = true;
+                    return args[i];
+                }
+                if (args[i].startsWith("--")) {
+                    // Las opciones con valor también se saltan su valor
+                    i += isValued(args[i]) ? 1 : 0;
+                }
+            }
+            throw new IllegalArgumentException("Missing " + name);
+        }
+
+        String option(String name) {
+            for (int i = from; i < args.length; i++) {
+                if (args[i].equals(name)) {
+                    if (i + 1 == args.length) {
+                        throw new IllegalArgumentException("Missing value for " + name);
+                    }
+                    used[i] = true;
+                    used[i + 1] = true;
+                    return args[i + 1];
+                }
+            }
+            return null;
+        }
+
+        int option(String name, int defaultValue) {
+            String value = option(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+            }
+        }
+
+        boolean flag(String name) {
+            for (int i = from; i < args.length; i++) {
+                if (args[i].equals(name)) {
+                    used[i] = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void checkAllUsed() {
+            for (int i = from; i < args.length; i++) {
+                if (!used[i]) {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+        }
+
+        private static boolean isValued(String option) {
+            return option.equals("--limit") || option.equals("--type") || option.equals("--top");
+        }
+    }
+
+    /**
+     * Fuente de páginas sobre un roster por columnas, con la posición de cada Pokemon como id.
+     */
+    private static class RosterPageSource implements PokemonPageSource {
+        private final ColumnarRoster roster;
+
+        RosterPageSource(ColumnarRoster roster) {
+            this.roster = roster;
+        }
+
+        @Override
+        public int getRowCount() {
+            return roster.size();
+        }
+
+        @Override
+        public PokemonPage loadPageAt(int offset, int limit) {
+            int start = Math.min(Math.max(0, offset), roster.size());
+            int end = (int) Math.min(roster.size(), (long) start + limit);
+            long[] ids = new long[end - start];
+            Pokemon[] pokemons = new Pokemon[end - start];
+            for (int i = start; i < end; i++) {
+                ids[i - start] = i;
+                pokemons[i - start] = roster.toPokemon(i);
+            }
+            return new PokemonPage(ids, pokemons);
+        }
+
+        @Override
+        public PokemonPage loadPageAfter(long afterId, int limit) {
+            return loadPageAt((int) Math.min(Integer.MAX_VALUE, afterId + 1), limit);
+        }
+    }
+}
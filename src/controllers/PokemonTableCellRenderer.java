@@ -0,0 +1,178 @@
+package controllers;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.plaf.basic.BasicHTML;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Renderer de las celdas de la tabla de Pokemon. Muestra lo mismo que {@link DefaultTableCellRenderer},
+ * pero pintar una celda no crea objetos:
+ * <ul>
+ * <li>Las estadísticas no se convierten a texto cada vez: el texto de cada valor se guarda en una caché de tamaño fijo
+ * indexada por el valor, así que no hay que invalidarla cuando se edita, se ordena o se filtra la tabla.</li>
+ * <li>El texto se dibuja directamente, sin la maquetación de JLabel, que crea rectángulos y un Graphics más por celda.
+ * Cuando un texto no cabe, el texto recortado con "..." también se guarda en una caché por texto y ancho.</li>
+ * <li>No se avisa del cambio de texto salvo para los textos HTML, que siguen pintándose como en JLabel.</li>
+ * </ul>
+ */
+public class PokemonTableCellRenderer extends DefaultTableCellRenderer {
+
+    /**
+     * Cada caché guarda 2^CACHE_BITS textos, que bastan de sobra para las celdas visibles.
+     */
+    private static final int CACHE_BITS = 12;
+    private static final int CACHE_SIZE = 1 << CACHE_BITS;
+    private static final String ELLIPSIS = "...";
+
+    private final long[] cachedValues = new long[CACHE_SIZE];
+    private final String[] cachedTexts = new String[CACHE_SIZE];
+    private final String[] clippedSources = new String[CACHE_SIZE];
+    private final int[] clippedWidths = new int[CACHE_SIZE];
+    private final String[] clippedTexts = new String[CACHE_SIZE];
+    private final Insets insets = new Insets(0, 0, 0, 0);
+    private Font metricsFont;
+    private FontMetrics metrics;
+    private int hits;
+    private int misses;
+
+    /**
+     * Muestra el valor de la celda. Los números se muestran con el texto guardado en la caché.
+     *
+     * @param value El valor de la celda.
+     */
+    @Override
+    protected void setValue(Object value) {
+        String text;
+        if (value instanceof Double) {
+            text = format((Double) value);
+        } else {
+            text = value == null ? "" : value.toString();
+        }
+        if (text != getText()) {
+            setText(text);
+        }
+    }
+
+    /**
+     * Obtiene el texto de un número, el mismo que {@link Double#toString(double)}, creándolo solo si no está en la caché.
+     *
+     * @param value El número.
+     * @return El texto del número.
+     */
+    public String format(double value) {
+        long bits = Double.doubleToLongBits(value);
+        int slot = (int) (bits ^ (bits >>> 32)) * 0x9E3779B9 >>> (Integer.SIZE - CACHE_BITS);
+        String text = cachedTexts[slot];
+        if (text != null && cachedValues[slot] == bits) {
+            hits++;
+            return text;
+        }
+        misses++;
+        text = Double.toString(value);
+        cachedValues[slot] = bits;
+        cachedTexts[slot] = text;
+        return text;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Pinta la celda: el fondo, el borde y el texto alineado a la izquierda y centrado en vertical, como JLabel.
+     * Los textos HTML, los iconos y las alineaciones que no usa la tabla se pintan con JLabel.
+     *
+     * @param g El Graphics de la celda.
+     */
+    @Override
+    public void paint(Graphics g) {
+        String text = getText();
+        if (getIcon() != null || getClientProperty(BasicHTML.propertyKey) != null
+                || getHorizontalAlignment() != LEADING || !getComponentOrientation().isLeftToRight()) {
+            super.paint(g);
+            return;
+        }
+        int width = getWidth();
+        int height = getHeight();
+        if (isOpaque()) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, width, height);
+        }
+        Border border = getBorder();
+        if (border != null) {
+            border.paintBorder(this, g, 0, 0, width, height);
+        }
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Font font = getFont();
+        if (font != metricsFont) {
+            metricsFont = font;
+            metrics = getFontMetrics(font);
+            Arrays.fill(clippedSources, null);
+        }
+        getInsets(insets);
+        int available = width - insets.left - insets.right;
+        String shown = metrics.stringWidth(text) <= available ? text : clip(text, available);
+
+        Object desktopHints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+        if (desktopHints instanceof Map && g instanceof Graphics2D) {
+            ((Graphics2D) g).addRenderingHints((Map<?, ?>) desktopHints);
+        }
+        g.setFont(font);
+        g.setColor(isEnabled() ? getForeground() : UIManager.getColor("Label.disabledForeground"));
+        // Mismo redondeo que SwingUtilities.layoutCompoundLabel al centrar en vertical
+        int textHeight = height - insets.top - insets.bottom;
+        g.drawString(shown, insets.left, insets.top + textHeight / 2 - metrics.getHeight() / 2 + metrics.getAscent());
+    }
+
+    /**
+     * Recorta un texto que no cabe y le añade "...", guardando el resultado para el mismo texto y ancho.
+     */
+    private String clip(String text, int available) {
+        int slot = (System.identityHashCode(text) * 31 + available) * 0x9E3779B9 >>> (Integer.SIZE - CACHE_BITS);
+        if (clippedSources[slot] == text && clippedWidths[slot] == available) {
+            return clippedTexts[slot];
+        }
+        int room = available - metrics.stringWidth(ELLIPSIS);
+        int length = 0;
+        int used = 0;
+        while (length < text.length()) {
+            int next = used + metrics.charWidth(text.charAt(length));
+            if (next > room) {
+                break;
+            }
+            used = next;
+            length++;
+        }
+        String clipped = room <= 0 ? ELLIPSIS : text.substring(0, length) + ELLIPSIS;
+        clippedSources[slot] = text;
+        clippedWidths[slot] = available;
+        clippedTexts[slot] = clipped;
+        return clipped;
+    }
+
+    /**
+     * Solo se avisa del cambio de texto cuando el texto anterior o el nuevo es HTML, que es cuando JLabel
+     * tiene que actualizar la vista con la que lo pinta. El resto de avisos ya los descarta DefaultTableCellRenderer.
+     */
+    @Override
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+        if ("text".equals(propertyName) && !isHtml(oldValue) && !isHtml(newValue)) {
+            return;
+        }
+        super.firePropertyChange(propertyName, oldValue, newValue);
+    }
+
+    private static boolean isHtml(Object text) {
+        return text instanceof String && BasicHTML.isHTMLString((String) text);
+    }
+}
@@ -0,0 +1,68 @@
+package controllers;
+
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicHTML;
+import java.awt.*;
+
+/**
+ * Etiqueta base de los renderers de celdas de la aplicación.
+ * Un renderer no forma parte de la interfaz: solo se usa para pintar cada celda, así que, igual que
+ * {@link DefaultListCellRenderer}, se anulan la validación, el repintado y los avisos de cambios de propiedades
+ * que JLabel lanza en cada setText. Sin esto, pintar cada celda invalida la jerarquía que contiene la lista.
+ */
+class RendererLabel extends JLabel {
+
+    /**
+     * Cambia el texto solo si es otro objeto distinto del actual, lo que evita trabajo cuando se repinta la misma celda.
+     *
+     * @param text El texto a mostrar.
+     */
+    void updateText(String text) {
+        if (text != getText()) {
+            setText(text);
+        }
+    }
+
+    @Override
+    public void validate() {
+    }
+
+    @Override
+    public void invalidate() {
+    }
+
+    @Override
+    public void revalidate() {
+    }
+
+    @Override
+    public void repaint() {
+    }
+
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void repaint(Rectangle r) {
+    }
+
+    /**
+     * Solo se avisa del cambio de texto cuando el texto anterior o el nuevo es HTML, que es cuando JLabel
+     * tiene que actualizar la vista con la que lo pinta.
+     */
+    @Override
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+        if ("text".equals(propertyName) && (isHtml(oldValue) || isHtml(newValue))) {
+            super.firePropertyChange(propertyName, oldValue, newValue);
+        }
+    }
+
+    @Override
+    public void firePropertyChange(String propertyName, boolean oldValue, boolean newValue) {
+    }
+
+    private static boolean isHtml(Object text) {
+        return text instanceof String && BasicHTML.isHTMLString((String) text);
+    }
+}
@@ -0,0 +1,157 @@
+package controllers;
+
+import models.swing.PokemonRowSorter;
+import models.swing.PokemonTableModel;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+/**
+ * Punto de entrada sin interfaz gráfica que mide el tiempo de pintar la tabla de Pokemon mientras se desplaza.
+ * Crea una tabla como la de la Pokedex con Pokemon aleatorios, la mete en un JScrollPane y pinta en una imagen
+ * un fotograma por cada posición del desplazamiento, primero con el renderer por defecto de Swing y después
+ * con {@link PokemonTableCellRenderer}. Para cada uno escribe el tiempo medio y el percentil 99 por fotograma,
+ * la memoria reservada por fotograma y las recolecciones de basura.
+ * <p>
+ * Opciones: {@code --rows N} para el número de filas (100000 por defecto), {@code --frames F} para el número
+ * de fotogramas medidos (2000 por defecto) y {@code --step S} para los píxeles que avanza cada fotograma (97 por defecto).
+ */
+public class TableScrollBenchmark {
+
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int ROW_HEIGHT = 25;
+    private static final int WARMUP_FRAMES = 500;
+
+    /**
+     * Ejecuta las mediciones y escribe los resultados en la salida estándar.
+     *
+     * @param args Los argumentos de la línea de comandos.
+     * @throws InterruptedException si se interrumpe la espera al hilo de eventos.
+     * @throws InvocationTargetException si falla alguna medición.
+     */
+    public static void main(String[] args) throws InterruptedException, InvocationTargetException {
+        int rows = 100_000;
+        int frames = 2000;
+        int step = 97;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rows":
+                    rows = Integer.parseInt(args[++i]);
+                    break;
+                case "--frames":
+                    frames = Integer.parseInt(args[++i]);
+                    break;
+                case "--step":
+                    step = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: TableScrollBenchmark [--rows N] [--frames F] [--step S]");
+                    System.exit(2);
+            }
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        int rowCount = rows;
+        int frameCount = frames;
+        int scrollStep = step;
+        SwingUtilities.invokeAndWait(() -> {
+            PokemonTableModel model = new PokemonTableModel();
+            model.addAll(TournamentRunner.createRandomRoster(rowCount).toPokemonList());
+            System.out.println("Scrolling " + rowCount + " rows, " + frameCount + " frames of "
+                    + WIDTH + "x" + HEIGHT + ", " + scrollStep + " px per frame");
+
+            measure("default renderer", model, new DefaultTableCellRenderer(), frameCount, scrollStep);
+            PokemonTableCellRenderer renderer = new PokemonTableCellRenderer();
+            measure("cached renderer ", model, renderer, frameCount, scrollStep);
+            System.out.println("Cached renderer: " + renderer.getHits() + " hits, " + renderer.getMisses() + " misses");
+        });
+    }
+
+    /**
+     * Pinta la tabla desplazándola y escribe las mediciones de un renderer.
+     */
+    private static void measure(String label, PokemonTableModel model, TableCellRenderer renderer, int frames, int step) {
+        JTable table = new JTable(model);
+        table.setRowHeight(ROW_HEIGHT);
+        table.setRowSorter(new PokemonRowSorter(model));
+        table.setDefaultRenderer(Object.class, renderer);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setSize(WIDTH, HEIGHT);
+        scrollPane.doLayout();
+        scrollPane.getViewport().doLayout();
+        table.setSize(table.getPreferredSize());
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int maxY = Math.max(1, table.getHeight() - scrollPane.getViewport().getHeight());
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            paintFrame(scrollPane, image, (frame * step) % maxY);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long allocatedBefore = allocatedBytes(threads);
+        long collectionsBefore = collectionCount();
+        long collectionMillisBefore = collectionMillis();
+        long[] frameNanos = new long[frames];
+        for (int frame = 0; frame < frames; frame++) {
+            long start = System.nanoTime();
+            paintFrame(scrollPane, image, ((WARMUP_FRAMES + frame) * (long) step) % maxY);
+            frameNanos[frame] = System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes(threads) - allocatedBefore;
+
+        Arrays.sort(frameNanos);
+        double totalMillis = Arrays.stream(frameNanos).sum() / 1e6;
+        System.out.printf("%s: %.3f ms/frame, p99 %.3f ms, %s/frame allocated, %d GCs (%d ms)%n",
+                label, totalMillis / frames, frameNanos[(int) (frames * 0.99)] / 1e6,
+                allocated < 0 ? "n/a" : (allocated / frames / 1024) + " KiB",
+                collectionCount() - collectionsBefore, collectionMillis() - collectionMillisBefore);
+    }
+
+    private static void paintFrame(JScrollPane scrollPane, BufferedImage image, long y) {
+        scrollPane.getViewport().setViewPosition(new Point(0, (int) y));
+        Graphics2D graphics = image.createGraphics();
+        try {
+            scrollPane.paint(graphics);
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    /**
+     * Obtiene los bytes reservados por el hilo actual, si la máquina virtual lo permite.
+     *
+     * @return Los bytes reservados, o -1 si no se pueden medir.
+     */
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long collectionMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,79 @@
+package controllers;
+
+import database.DatabaseConnection;
+import models.PokemonType;
+import models.battle.Tournament;
+import models.battle.TournamentResult;
+import models.battle.TournamentStanding;
+import models.roster.ColumnarRoster;
+
+import java.sql.SQLException;
+import java.util.Random;
+
+/**
+ * Punto de entrada sin interfaz gráfica que juega un torneo de todos contra todos y muestra la clasificación.
+ * Por defecto usa los Pokemon de la base de datos.
+ * <p>
+ * Opciones: {@code --random N} para generar N Pokemon aleatorios, {@code --top K} para el tamaño de la
+ * clasificación (10 por defecto) y {@code --matrix} para guardar la matriz de victorias.
+ */
+public class TournamentRunner {
+
+    private static final long RANDOM_SEED = 42;
+
+    /**
+     * Juega el torneo y escribe el rendimiento y la clasificación en la salida estándar.
+     *
+     * @param args Los argumentos de la línea de comandos.
+     * @throws SQLException si ocurre algún error al leer la base de datos.
+     */
+    public static void main(String[] args) throws SQLException {
+        int randomSize = -1;
+        int top = 10;
+        boolean recordMatrix = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--random":
+                    randomSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--top":
+                    top = Integer.parseInt(args[++i]);
+                    break;
+                case "--matrix":
+                    recordMatrix = true;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: TournamentRunner [--random N] [--top K] [--matrix]");
+                    System.exit(2);
+            }
+        }
+
+        ColumnarRoster roster = randomSize >= 0 ? createRandomRoster(randomSize) : DatabaseConnection.GetPokemonRoster();
+        TournamentResult result = new Tournament(roster, recordMatrix).run();
+
+        System.out.println(result);
+        for (TournamentStanding standing : result.getLeaderboard(top)) {
+            System.out.println(standing);
+        }
+        DatabaseConnection.CloseConnections();
+    }
+
+    /**
+     * Crea un roster por columnas con estadísticas aleatorias, siempre las mismas para el mismo tamaño.
+     *
+     * @param size El número de Pokemon.
+     * @return El roster creado.
+     */
+    static ColumnarRoster createRandomRoster(int size) {
+        Random random = new Random(RANDOM_SEED);
+        PokemonType[] types = PokemonType.values();
+        ColumnarRoster roster = new ColumnarRoster(size);
+        for (int i = 0; i < size; i++) {
+            PokemonType type = types[random.nextInt(types.length)];
+            roster.add("Pokemon " + i, type,
+                    1 + random.nextInt(500), 1 + random.nextInt(200), 1 + random.nextInt(200), 1 + random.nextInt(200));
+        }
+        return roster;
+    }
+}
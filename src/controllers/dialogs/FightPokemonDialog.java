@@ -1,150 +1,389 @@
-package controllers.dialogs;
-
-import controllers.PokemonRenderer;
-import models.Pokemon;
-import models.swing.PokemonTableModel;
-
-import javax.swing.*;
-import java.awt.*;
-import java.awt.event.WindowAdapter;
-import java.awt.event.WindowEvent;
-
-/**
- * Clase FightPokemonDialog que extiende de JDialog.
- * Esta clase genera un diálogo que permite al usuario seleccionar un Pokémon para pelear contra el Pokémon actual.
- */
-public class FightPokemonDialog extends JDialog {
-
-    /**
-     * Modelo que contiene la lista de Pokémon.
-     */
-    private final DefaultListModel<Pokemon> model;
-
-    /**
-     * El Pokémon actual que se está utilizando.
-     */
-    private final Pokemon currentPokemon;
-
-    /**
-     * JList que muestra la lista de Pokémon.
-     */
-    private JList<Pokemon> pokemonList;
-
-    /**
-     * Constructor que crea una nueva instancia de FightPokemonDialog.
-     * Inicializa la lista de Pokémon y el botón de pelea.
-     *
-     * @param parent La ventana padre del diálogo.
-     * @param model El modelo de la tabla de Pokémons.
-     * @param currentPokemon El Pokémon actual.
-     */
-    public FightPokemonDialog(JFrame parent, PokemonTableModel model, Pokemon currentPokemon) {
-        super(parent, "Fight", true);
-        this.currentPokemon = currentPokemon;
-        this.model = model.convertToListModel();
-
-        setLayout(new GridBagLayout());
-        GridBagConstraints constraints = new GridBagConstraints();
-        createPokemonJList(constraints);
-        createFightButton(constraints);
-
-        pack();
-        setLocationRelativeTo(parent);
-        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
-    }
-
-    /**
-     * Crea y configura el botón de pelea.
-     *
-     * @param constraints Las restricciones del layout para posicionar el botón en el diálogo.
-     */
-    private void createFightButton(GridBagConstraints constraints) {
-        JButton fightButton = new JButton("Fight");
-        fightButton.addActionListener(e -> onClickFightButton());
-        constraints.gridx = 0;
-        constraints.gridy = 1;
-        constraints.gridwidth = 1;
-        constraints.anchor = GridBagConstraints.CENTER;
-        add(fightButton, constraints);
-    }
-
-    /**
-     * Se ejecuta cuando se hace clic en el botón de pelea.
-     * Si no se seleccionó un Pokémon para pelear, se muestra un mensaje de error.
-     */
-    private void onClickFightButton() {
-        if (pokemonList.getSelectedValue() == null) {
-            JOptionPane.showMessageDialog(this, "Please select a Pokemon to fight against.", "Error", JOptionPane.ERROR_MESSAGE);
-        } else {
-            createFightingDialog(pokemonList.getSelectedValue());
-            dispose();
-        }
-    }
-
-    /**
-     * Crea y configura la lista de Pokémon.
-     *
-     * @param constraints Las restricciones del layout para posicionar la lista en el diálogo.
-     */
-    private void createPokemonJList(GridBagConstraints constraints) {
-        pokemonList = new JList<>(model);
-        pokemonList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        JScrollPane listScrollPane = new JScrollPane(pokemonList);
-        listScrollPane.setPreferredSize(new Dimension(200, 200));
-        constraints.gridx = 0;
-        constraints.gridy = 0;
-        constraints.gridwidth = 2;
-        constraints.fill = GridBagConstraints.BOTH;
-        pokemonList.setCellRenderer(new PokemonRenderer());
-        add(listScrollPane, constraints);
-    }
-
-    /**
-     * Crea y muestra un diálogo de pelea con el Pokémon seleccionado.
-     *
-     * @param selectedPokemon El Pokémon seleccionado para pelear.
-     */
-    private void createFightingDialog(Pokemon selectedPokemon) {
-        JDialog fightingDialog = new JDialog(this, "Fighting", true);
-        JLabel label = new JLabel("Fighting " + currentPokemon.getName() + " against " + selectedPokemon.getName() + "...");
-        fightingDialog.add(label);
-        fightingDialog.addWindowListener(new WindowAdapter() {
-            @Override
-            public void windowOpened(WindowEvent e) {
-                startFight(selectedPokemon, fightingDialog, label);
-            }
-        });
-        fightingDialog.pack();
-        fightingDialog.setLocationRelativeTo(this);
-        fightingDialog.setVisible(true);
-    }
-
-    /**
-     * Inicia la pelea entre el Pokémon actual y el seleccionado.
-     * Después de un tiempo aleatorio, se determina el ganador y se muestra el resultado.
-     *
-     * @param selectedPokemon El Pokémon seleccionado para pelear.
-     * @param fightingDialog El diálogo de pelea.
-     * @param label La etiqueta donde se muestra el resultado.
-     */
-    private void startFight(Pokemon selectedPokemon, JDialog fightingDialog, JLabel label) {
-        try {
-            Thread.sleep(2000 + (int) (Math.random() * 2000));
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        int result = currentPokemon.compareTo(selectedPokemon);
-        if (result > 0) {
-            label.setText(currentPokemon.getName() + " won the fight!");
-        } else {
-            label.setText(selectedPokemon.getName() + " won the fight!");
-        }
-
-        JButton acceptButton = new JButton("Accept");
-        acceptButton.addActionListener(e -> {
-            fightingDialog.dispose();
-            dispose();
-        });
-        fightingDialog.pack();
-    }
-}
\ No newline at end of file
+package controllers.dialogs;
+
+import controllers.PokemonRenderer;
+import models.Pokemon;
+import models.battle.BattleEngine;
+import models.battle.BattleReplay;
+import models.battle.FightScheduler;
+import models.battle.MonteCarloSimulator;
+import models.swing.PokemonListModel;
+import models.swing.PokemonTableModel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Clase FightPokemonDialog que extiende de JDialog.
+ * Esta clase genera un diálogo que permite al usuario seleccionar un Pokémon para pelear contra el Pokémon actual.
+ */
+public class FightPokemonDialog extends JDialog {
+
+    private static final long SUSPENSE_MIN_MILLIS = 2000;
+    private static final long SUSPENSE_RANDOM_MILLIS = 2000;
+    private static final int REPLAY_TURN_MILLIS = 300;
+    private static final int MAX_REPLAYED_TURNS = 30;
+    private static final int HEALTH_BAR_MAX = 1000;
+
+    /**
+     * Vista de los Pokémon de la tabla que se muestra en la lista, sin copiarlos.
+     */
+    private final PokemonListModel model;
+
+    /**
+     * El Pokémon actual que se está utilizando.
+     */
+    private final Pokemon currentPokemon;
+
+    /**
+     * JList que muestra la lista de Pokémon.
+     */
+    private JList<Pokemon> pokemonList;
+
+    /**
+     * Casilla que indica si la pelea se reproduce turno a turno.
+     */
+    private JCheckBox animateCheckBox;
+
+    /**
+     * Casilla que limita la lista a los rivales a los que el Pokémon actual ganaría.
+     */
+    private JCheckBox beatableCheckBox;
+
+    /**
+     * Constructor que crea una nueva instancia de FightPokemonDialog.
+     * Inicializa la lista de Pokémon, las casillas de filtro y de animación y el botón de pelea.
+     * La lista lee los Pokémon directamente del modelo de la tabla, así que el diálogo se abre al instante
+     * sea cual sea el número de Pokémon.
+     *
+     * @param parent La ventana padre del diálogo.
+     * @param model El modelo de la tabla de Pokémons.
+     * @param currentPokemon El Pokémon actual.
+     */
+    public FightPokemonDialog(JFrame parent, PokemonTableModel model, Pokemon currentPokemon) {
+        super(parent, "Fight", true);
+        this.currentPokemon = currentPokemon;
+        this.model = new PokemonListModel(model);
+
+        setLayout(new GridBagLayout());
+        GridBagConstraints constraints = new GridBagConstraints();
+        createPokemonJList(constraints);
+        createBeatableCheckBox(constraints);
+        createFightButton(constraints);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                FightPokemonDialog.this.model.detach();
+            }
+        });
+
+        pack();
+        setLocationRelativeTo(parent);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+
+    /**
+     * Crea y configura la casilla de animación y el botón de pelea.
+     *
+     * @param constraints Las restricciones del layout para posicionar el botón en el diálogo.
+     */
+    private void createFightButton(GridBagConstraints constraints) {
+        animateCheckBox = new JCheckBox("Animate", true);
+        constraints.gridx = 1;
+        constraints.gridy = 2;
+        constraints.gridwidth = 1;
+        constraints.fill = GridBagConstraints.NONE;
+        constraints.anchor = GridBagConstraints.CENTER;
+        add(animateCheckBox, constraints);
+
+        JButton fightButton = new JButton("Fight");
+        fightButton.addActionListener(e -> onClickFightButton());
+        constraints.gridx = 0;
+        constraints.gridy = 2;
+        constraints.gridwidth = 1;
+        constraints.anchor = GridBagConstraints.CENTER;
+        add(fightButton, constraints);
+    }
+
+    /**
+     * Crea la casilla que filtra la lista a los rivales a los que ganaría el Pokémon actual.
+     * Al marcarla se resuelve un combate contra cada Pokémon, sin crear objetos, para decidir cuáles se muestran.
+     *
+     * @param constraints Las restricciones del layout para posicionar la casilla en el diálogo.
+     */
+    private void createBeatableCheckBox(GridBagConstraints constraints) {
+        beatableCheckBox = new JCheckBox("Only opponents it can beat");
+        beatableCheckBox.addActionListener(e -> {
+            pokemonList.clearSelection();
+            model.setFilter(beatableCheckBox.isSelected()
+                    ? opponent -> opponent != currentPokemon && BattleEngine.duel(currentPokemon, opponent) == BattleEngine.FIRST_WINS
+                    : null);
+        });
+        constraints.gridx = 0;
+        constraints.gridy = 1;
+        constraints.gridwidth = 2;
+        constraints.fill = GridBagConstraints.NONE;
+        constraints.anchor = GridBagConstraints.WEST;
+        add(beatableCheckBox, constraints);
+    }
+
+    /**
+     * Se ejecuta cuando se hace clic en el botón de pelea.
+     * Si no se seleccionó un Pokémon para pelear, se muestra un mensaje de error.
+     */
+    private void onClickFightButton() {
+        if (pokemonList.getSelectedValue() == null) {
+            JOptionPane.showMessageDialog(this, "Please select a Pokemon to fight against.", "Error", JOptionPane.ERROR_MESSAGE);
+        } else {
+            createFightingDialog(pokemonList.getSelectedValue());
+            dispose();
+        }
+    }
+
+    /**
+     * Crea y configura la lista de Pokémon.
+     *
+     * @param constraints Las restricciones del layout para posicionar la lista en el diálogo.
+     */
+    private void createPokemonJList(GridBagConstraints constraints) {
+        pokemonList = new JList<>(model);
+        pokemonList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // Con un prototipo la lista no mide todos los elementos para calcular su tamaño
+        pokemonList.setPrototypeCellValue(currentPokemon);
+        JScrollPane listScrollPane = new JScrollPane(pokemonList);
+        listScrollPane.setPreferredSize(new Dimension(200, 200));
+        constraints.gridx = 0;
+        constraints.gridy = 0;
+        constraints.gridwidth = 2;
+        constraints.fill = GridBagConstraints.BOTH;
+        pokemonList.setCellRenderer(new PokemonRenderer());
+        add(listScrollPane, constraints);
+    }
+
+    /**
+     * Crea y muestra un diálogo de pelea con el Pokémon seleccionado.
+     * El diálogo no es modal: el combate se resuelve en el {@link FightScheduler} y el resultado
+     * se entrega al hilo de eventos, así que se pueden encolar varios combates sin bloquear la interfaz.
+     *
+     * @param selectedPokemon El Pokémon seleccionado para pelear.
+     */
+    private void createFightingDialog(Pokemon selectedPokemon) {
+        JDialog fightingDialog = new JDialog(getOwner(), "Fighting", Dialog.ModalityType.MODELESS);
+        fightingDialog.setLayout(new GridBagLayout());
+        GridBagConstraints constraints = new GridBagConstraints();
+        constraints.insets = new Insets(4, 8, 4, 8);
+        constraints.fill = GridBagConstraints.HORIZONTAL;
+
+        JLabel label = new JLabel("Fighting " + currentPokemon.getName() + " against " + selectedPokemon.getName() + "...");
+        constraints.gridx = 0;
+        constraints.gridy = 0;
+        constraints.gridwidth = 2;
+        fightingDialog.add(label, constraints);
+
+        JProgressBar currentHealthBar = createHealthBar(currentPokemon);
+        JProgressBar selectedHealthBar = createHealthBar(selectedPokemon);
+        constraints.gridwidth = 1;
+        constraints.gridy = 1;
+        fightingDialog.add(new JLabel(currentPokemon.getName()), constraints);
+        constraints.gridx = 1;
+        fightingDialog.add(currentHealthBar, constraints);
+        constraints.gridx = 0;
+        constraints.gridy = 2;
+        fightingDialog.add(new JLabel(selectedPokemon.getName()), constraints);
+        constraints.gridx = 1;
+        fightingDialog.add(selectedHealthBar, constraints);
+
+        JLabel winRateLabel = new JLabel("Estimating win probability...");
+        constraints.gridx = 0;
+        constraints.gridy = 3;
+        constraints.gridwidth = 2;
+        fightingDialog.add(winRateLabel, constraints);
+
+        JButton acceptButton = new JButton("Accept");
+        acceptButton.setEnabled(false);
+        acceptButton.addActionListener(e -> fightingDialog.dispose());
+        constraints.gridx = 0;
+        constraints.gridy = 4;
+        constraints.gridwidth = 2;
+        constraints.fill = GridBagConstraints.NONE;
+        constraints.anchor = GridBagConstraints.CENTER;
+        fightingDialog.add(acceptButton, constraints);
+
+        FightView view = new FightView(fightingDialog, label, currentHealthBar, selectedHealthBar, acceptButton);
+        fightingDialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                view.stopReplay();
+            }
+        });
+        fightingDialog.setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        fightingDialog.pack();
+        fightingDialog.setLocationRelativeTo(this);
+        fightingDialog.setVisible(true);
+
+        estimateWinRate(selectedPokemon, fightingDialog, winRateLabel);
+
+        boolean animate = animateCheckBox.isSelected();
+        long delayMillis = animate ? 0 : SUSPENSE_MIN_MILLIS + (long) (Math.random() * SUSPENSE_RANDOM_MILLIS);
+        FightScheduler.getDefault().schedule(currentPokemon, selectedPokemon, delayMillis)
+                .whenComplete((replay, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                        view.showError();
+                    } else if (animate) {
+                        view.startReplay(replay);
+                    } else {
+                        view.showResult(replay);
+                    }
+                }));
+    }
+
+    /**
+     * Estima en segundo plano la probabilidad de que el Pokémon actual gane con daño aleatorio, simulando
+     * combates con {@link MonteCarloSimulator}, y la muestra en el diálogo. Si el combate ya se estimó antes,
+     * el resultado sale de la caché de estimaciones.
+     *
+     * @param selectedPokemon El Pokémon seleccionado para pelear.
+     * @param fightingDialog  El diálogo de pelea.
+     * @param winRateLabel    La etiqueta en la que se muestra la probabilidad.
+     */
+    private void estimateWinRate(Pokemon selectedPokemon, JDialog fightingDialog, JLabel winRateLabel) {
+        Pokemon first = currentPokemon;
+        CompletableFuture.supplyAsync(() -> MonteCarloSimulator.estimate(first, selectedPokemon))
+                .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                    if (!fightingDialog.isDisplayable()) {
+                        return;
+                    }
+                    if (error != null) {
+                        error.printStackTrace();
+                        winRateLabel.setText("The win probability could not be estimated.");
+                    } else {
+                        winRateLabel.setText(String.format("%s wins %.1f%% of %,d random fights (%.1f%%-%.1f%%)",
+                                first.getName(), result.getFirstWinRate() * 100, result.getSimulations(),
+                                result.getFirstWinRateLower() * 100, result.getFirstWinRateUpper() * 100));
+                    }
+                    fightingDialog.pack();
+                }));
+    }
+
+    /**
+     * Crea una barra que muestra la salud de un Pokémon durante la pelea.
+     *
+     * @param pokemon El Pokémon.
+     * @return La barra, llena con la salud inicial.
+     */
+    private static JProgressBar createHealthBar(Pokemon pokemon) {
+        JProgressBar healthBar = new JProgressBar(0, HEALTH_BAR_MAX);
+        healthBar.setValue(HEALTH_BAR_MAX);
+        healthBar.setStringPainted(true);
+        healthBar.setString(String.format("%.1f", pokemon.getHealth()));
+        return healthBar;
+    }
+
+    /**
+     * Clase FightView que actualiza los componentes de un diálogo de pelea.
+     * Todos sus métodos se ejecutan en el hilo de eventos.
+     */
+    private static class FightView {
+        private final JDialog fightingDialog;
+        private final JLabel label;
+        private final JProgressBar firstHealthBar;
+        private final JProgressBar secondHealthBar;
+        private final JButton acceptButton;
+        private Timer replayTimer;
+        private long turn;
+
+        FightView(JDialog fightingDialog, JLabel label, JProgressBar firstHealthBar, JProgressBar secondHealthBar,
+                  JButton acceptButton) {
+            this.fightingDialog = fightingDialog;
+            this.label = label;
+            this.firstHealthBar = firstHealthBar;
+            this.secondHealthBar = secondHealthBar;
+            this.acceptButton = acceptButton;
+        }
+
+        /**
+         * Reproduce el combate turno a turno con un Timer de Swing. Si el combate es muy largo,
+         * después de {@link #MAX_REPLAYED_TURNS} turnos salta directamente al último.
+         *
+         * @param replay La repetición del combate.
+         */
+        void startReplay(BattleReplay replay) {
+            if (!fightingDialog.isDisplayable()) {
+                return;
+            }
+            if (replay.getTurnCount() == BattleEngine.NEVER) {
+                showResult(replay);
+                return;
+            }
+            turn = 0;
+            replayTimer = new Timer(REPLAY_TURN_MILLIS, e -> {
+                long lastTurn = replay.getTurnCount() - 1;
+                if (turn >= MAX_REPLAYED_TURNS && turn < lastTurn) {
+                    turn = lastTurn;
+                }
+                showTurn(replay, turn);
+                if (turn++ >= lastTurn) {
+                    stopReplay();
+                    showResult(replay);
+                }
+            });
+            replayTimer.setInitialDelay(0);
+            replayTimer.start();
+        }
+
+        void stopReplay() {
+            if (replayTimer != null) {
+                replayTimer.stop();
+                replayTimer = null;
+            }
+        }
+
+        /**
+         * Muestra el ganador del combate y habilita el botón de aceptar.
+         *
+         * @param replay La repetición del combate.
+         */
+        void showResult(BattleReplay replay) {
+            if (!fightingDialog.isDisplayable()) {
+                return;
+            }
+            Pokemon winner = replay.getWinner();
+            if (winner == null) {
+                label.setText("Neither pokemon can hurt the other. It's a draw!");
+            } else {
+                showTurn(replay, replay.getTurnCount() - 1);
+                label.setText(winner.getName() + " won the fight in " + replay.getTurnCount() + " turns!");
+            }
+            finish();
+        }
+
+        void showError() {
+            if (!fightingDialog.isDisplayable()) {
+                return;
+            }
+            label.setText("The fight could not be resolved.");
+            finish();
+        }
+
+        private void showTurn(BattleReplay replay, long turn) {
+            Pokemon attacker = replay.isFirstAttacking(turn) ? replay.getFirst() : replay.getSecond();
+            label.setText(String.format("Turn %d: %s deals %.1f damage", turn + 1, attacker.getName(),
+                    replay.getDamage(turn)));
+            updateHealthBar(firstHealthBar, replay.getFirstHealthAfter(turn), replay.getFirst().getHealth());
+            updateHealthBar(secondHealthBar, replay.getSecondHealthAfter(turn), replay.getSecond().getHealth());
+        }
+
+        private static void updateHealthBar(JProgressBar healthBar, double health, double maxHealth) {
+            healthBar.setValue(maxHealth <= 0 ? 0 : (int) Math.round(health / maxHealth * HEALTH_BAR_MAX));
+            healthBar.setString(String.format("%.1f", health));
+        }
+
+        private void finish() {
+            acceptButton.setEnabled(true);
+            fightingDialog.pack();
+        }
+    }
+}
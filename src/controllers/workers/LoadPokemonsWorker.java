@@ -0,0 +1,104 @@
+package controllers.workers;
+
+import database.DatabaseConnection;
+import database.DatabasePokemonPageSource;
+import models.Pokemon;
+import models.swing.PokemonPage;
+import models.swing.PokemonTableModel;
+
+import javax.swing.*;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase LoadPokemonsWorker que carga la lista de Pokemon de la base de datos fuera del hilo de eventos de Swing.
+ * Si la lista es pequeña, la lee por partes y va añadiendo cada parte al modelo de la tabla a medida que llega.
+ * Si supera el umbral de carga por páginas, no lee ninguna fila y devuelve la fuente paginada para que
+ * el modelo cargue solo las filas visibles.
+ */
+public class LoadPokemonsWorker extends SwingWorker<DatabasePokemonPageSource, PokemonPage> {
+
+    private static final int CHUNK_SIZE = 2000;
+
+    private final PokemonTableModel model;
+    private final int pagedLoadThreshold;
+    private boolean modelCleared;
+
+    /**
+     * Constructor de la clase LoadPokemonsWorker.
+     *
+     * @param model              El modelo de la tabla que recibirá las filas.
+     * @param pagedLoadThreshold El número de filas a partir del cual no se cargan las filas y se devuelve la fuente paginada.
+     */
+    public LoadPokemonsWorker(PokemonTableModel model, int pagedLoadThreshold) {
+        this.model = model;
+        this.pagedLoadThreshold = pagedLoadThreshold;
+    }
+
+    /**
+     * Lee la lista en segundo plano, publicando cada parte leída y actualizando el progreso.
+     *
+     * @return La fuente paginada si la lista supera el umbral, o null si se ha leído por partes.
+     * @throws Exception si ocurre algún error al leer la base de datos.
+     */
+    @Override
+    protected DatabasePokemonPageSource doInBackground() throws Exception {
+        DatabasePokemonPageSource pageSource = DatabaseConnection.OpenPokemonPages();
+        int total = pageSource.getRowCount();
+        if (total > pagedLoadThreshold) {
+            return pageSource;
+        }
+
+        int loaded = 0;
+        PokemonPage page = pageSource.loadPageAt(0, CHUNK_SIZE);
+        while (!isCancelled()) {
+            if (page.size() > 0) {
+                publish(page);
+                loaded += page.size();
+                setProgress(Math.min(100, loaded * 100 / Math.max(1, total)));
+            }
+            if (page.size() < CHUNK_SIZE) {
+                break;
+            }
+            page = pageSource.loadPageAfter(page.getLastId(), CHUNK_SIZE);
+        }
+        return null;
+    }
+
+    /**
+     * Añade al modelo las partes publicadas. La lista anterior se vacía al llegar la primera parte,
+     * para que un error al abrir la base de datos no la borre.
+     *
+     * @param pages Las partes leídas desde la última llamada.
+     */
+    @Override
+    protected void process(List<PokemonPage> pages) {
+        clearModelOnce();
+        for (PokemonPage page : pages) {
+            model.appendRows(page);
+        }
+    }
+
+    /**
+     * Si la lista estaba vacía no se ha publicado ninguna parte, así que el modelo se vacía al terminar.
+     */
+    @Override
+    protected void done() {
+        if (!isCancelled()) {
+            try {
+                if (get() == null) {
+                    clearModelOnce();
+                }
+            } catch (Exception ignored) {
+                // El error lo muestra quien ejecuta la tarea
+            }
+        }
+    }
+
+    private void clearModelOnce() {
+        if (!modelCleared) {
+            model.setPokemonRows(Collections.<Long, Pokemon>emptyMap());
+            modelCleared = true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package controllers.workers;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Clase RosterFileWorker que ejecuta una operación sobre un fichero de roster (abrirlo, importarlo o exportarlo)
+ * fuera del hilo de eventos de Swing. Estas operaciones no informan de su progreso.
+ *
+ * @param <T> El tipo del resultado de la operación.
+ */
+public class RosterFileWorker<T> extends SwingWorker<T, Void> {
+
+    private final Callable<T> operation;
+
+    /**
+     * Constructor de la clase RosterFileWorker.
+     *
+     * @param operation La operación a ejecutar en segundo plano.
+     */
+    public RosterFileWorker(Callable<T> operation) {
+        this.operation = operation;
+    }
+
+    @Override
+    protected T doInBackground() throws Exception {
+        return operation.call();
+    }
+}
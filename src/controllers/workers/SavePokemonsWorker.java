@@ -0,0 +1,69 @@
+package controllers.workers;
+
+import database.DatabaseConnection;
+import database.WriteProgressListener;
+import database.WriteStatistics;
+import models.PokemonChangeSet;
+import models.swing.PokemonTableModel;
+
+import javax.swing.*;
+
+/**
+ * Clase SavePokemonsWorker que guarda los cambios pendientes del modelo de la tabla fuera del hilo de eventos de Swing.
+ * Los cambios se copian al crear la tarea, en el hilo de eventos, y se marcan como guardados al terminar
+ * sin errores. Si se cancela, la transacción se deshace y los cambios siguen pendientes.
+ */
+public class SavePokemonsWorker extends SwingWorker<WriteStatistics, Void> {
+
+    private final PokemonTableModel model;
+    private final PokemonChangeSet changeSet;
+
+    /**
+     * Constructor de la clase SavePokemonsWorker. Se debe llamar desde el hilo de eventos.
+     *
+     * @param model El modelo de la tabla cuyos cambios se van a guardar.
+     */
+    public SavePokemonsWorker(PokemonTableModel model) {
+        this.model = model;
+        this.changeSet = model.getChangeSet();
+    }
+
+    /**
+     * Escribe los cambios en segundo plano, actualizando el progreso después de cada lote.
+     *
+     * @return Las estadísticas de la escritura, o null si no había nada que guardar.
+     * @throws Exception si ocurre algún error al escribir en la base de datos.
+     */
+    @Override
+    protected WriteStatistics doInBackground() throws Exception {
+        if (changeSet.isEmpty()) {
+            return null;
+        }
+        return DatabaseConnection.SavePokemonChanges(changeSet, new WriteProgressListener() {
+            @Override
+            public void onProgress(int written, int total) {
+                setProgress(Math.min(100, written * 100 / Math.max(1, total)));
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return SavePokemonsWorker.this.isCancelled();
+            }
+        });
+    }
+
+    /**
+     * Marca los cambios como guardados en el modelo si la escritura ha terminado sin errores.
+     */
+    @Override
+    protected void done() {
+        if (!isCancelled()) {
+            try {
+                get();
+                model.markSaved(changeSet);
+            } catch (Exception ignored) {
+                // El error lo muestra quien ejecuta la tarea
+            }
+        }
+    }
+}
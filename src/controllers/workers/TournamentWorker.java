@@ -0,0 +1,54 @@
+package controllers.workers;
+
+import models.battle.Tournament;
+import models.battle.TournamentResult;
+import models.swing.PokemonTableModel;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Clase TournamentWorker que juega un torneo de todos contra todos fuera del hilo de eventos de Swing,
+ * actualizando el progreso con las filas completadas. Al cancelar la tarea se cancela también el torneo.
+ */
+public class TournamentWorker extends SwingWorker<TournamentResult, Void> {
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 100;
+
+    private final PokemonTableModel model;
+
+    /**
+     * Constructor de la clase TournamentWorker. Los Pokemon se copian en segundo plano con
+     * {@link PokemonTableModel#snapshot()}, así que la tabla puede seguir cambiando mientras dura el torneo,
+     * y si sus filas se cargan por páginas se leen de la fuente sin bloquear el hilo de eventos.
+     *
+     * @param model El modelo con los Pokemon que participan.
+     */
+    public TournamentWorker(PokemonTableModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Copia las filas del modelo y las estadísticas de los Pokemon, juega el torneo en el pool común de fork/join
+     * y actualiza el progreso mientras termina.
+     *
+     * @return El resultado del torneo.
+     * @throws Exception si el torneo falla.
+     */
+    @Override
+    protected TournamentResult doInBackground() throws Exception {
+        Tournament tournament = new Tournament(model.snapshot().asList(), false);
+        Callable<TournamentResult> play = tournament::run;
+        ForkJoinTask<TournamentResult> task = ForkJoinPool.commonPool().submit(play);
+        while (!task.isDone()) {
+            if (isCancelled()) {
+                tournament.cancel();
+            }
+            setProgress(Math.min(100, tournament.getCompletedRows() * 100 / Math.max(1, tournament.getRosterSize())));
+            Thread.sleep(PROGRESS_INTERVAL_MILLIS);
+        }
+        return task.get();
+    }
+}
@@ -0,0 +1,218 @@
+package database;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clase ConnectionManager que mantiene un pequeño conjunto de conexiones SQLite abiertas y las presta
+ * a quien las necesite, evitando abrir una conexión nueva en cada carga o guardado.
+ * La ubicación de la base de datos se resuelve a partir de la configuración:
+ * primero la propiedad del sistema {@value #DATABASE_PATH_PROPERTY}, después la variable de entorno
+ * {@value #DATABASE_PATH_ENV} y, si no hay ninguna, src/database/pokemon.db.
+ */
+public class ConnectionManager {
+
+    public static final String DATABASE_PATH_PROPERTY = "pokedex.db.path";
+    public static final String DATABASE_PATH_ENV = "POKEDEX_DB_PATH";
+    public static final String POOL_SIZE_PROPERTY = "pokedex.db.poolSize";
+    public static final int DEFAULT_POOL_SIZE = 4;
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30_000;
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static ConnectionManager defaultManager;
+
+    private final String url;
+    private final int maxConnections;
+    private final long borrowTimeoutMillis;
+    private final LinkedBlockingDeque<PoolEntry> idleConnections = new LinkedBlockingDeque<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Constructor de la clase ConnectionManager.
+     *
+     * @param databasePath        La ruta del fichero de la base de datos.
+     * @param maxConnections      El número máximo de conexiones abiertas a la vez.
+     * @param borrowTimeoutMillis El tiempo máximo de espera por una conexión libre.
+     */
+    public ConnectionManager(String databasePath, int maxConnections, long borrowTimeoutMillis) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxConnections);
+        }
+        this.url = "jdbc:sqlite:" + databasePath;
+        this.maxConnections = maxConnections;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    /**
+     * Devuelve el gestor compartido por la aplicación, creándolo con la configuración la primera vez.
+     *
+     * @return El gestor de conexiones por defecto.
+     */
+    public static synchronized ConnectionManager getDefault() {
+        if (defaultManager == null || defaultManager.closed) {
+            defaultManager = new ConnectionManager(resolveDatabasePath(),
+                    Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE),
+                    DEFAULT_BORROW_TIMEOUT_MILLIS);
+        }
+        return defaultManager;
+    }
+
+    /**
+     * Resuelve la ruta de la base de datos a partir de la configuración.
+     *
+     * @return La ruta configurada, o src/database/pokemon.db con el separador de la plataforma.
+     */
+    public static String resolveDatabasePath() {
+        String path = System.getProperty(DATABASE_PATH_PROPERTY);
+        if (path == null || path.trim().isEmpty()) {
+            path = System.getenv(DATABASE_PATH_ENV);
+        }
+        if (path == null || path.trim().isEmpty()) {
+            path = "src" + File.separator + "database" + File.separator + "pokemon.db";
+        }
+        return path;
+    }
+
+    /**
+     * Presta una conexión, reutilizando una libre si la hay o abriendo una nueva si no se ha llegado al máximo.
+     * Si todas están ocupadas, espera a que se devuelva alguna.
+     *
+     * @return Una conexión con auto-commit desactivado. Se debe cerrar para devolverla.
+     * @throws SQLException si el gestor está cerrado, se agota la espera o no se puede abrir la conexión.
+     */
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection manager is closed");
+        }
+        long start = System.nanoTime();
+        PoolEntry entry = null;
+        while (entry == null) {
+            entry = idleConnections.pollFirst();
+            if (entry == null) {
+                int open = openConnections.get();
+                if (open < maxConnections) {
+                    if (!openConnections.compareAndSet(open, open + 1)) {
+                        continue;
+                    }
+                    entry = openConnection();
+                } else {
+                    entry = awaitIdleConnection(start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis));
+                    if (entry == null) {
+                        continue;
+                    }
+                }
+            }
+            if (!entry.isValid()) {
+                discard(entry);
+                entry = null;
+            }
+        }
+        recordBorrowWait(System.nanoTime() - start);
+        return new PooledConnection(this, entry);
+    }
+
+    /**
+     * Cierra todas las conexiones libres. Las conexiones prestadas se cierran al devolverse.
+     */
+    public void close() {
+        closed = true;
+        PoolEntry entry;
+        while ((entry = idleConnections.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas del gestor.
+     *
+     * @return Las conexiones abiertas y libres, y las esperas para obtener una conexión.
+     */
+    public ConnectionPoolMetrics getMetrics() {
+        return new ConnectionPoolMetrics(openConnections.get(), idleConnections.size(), borrowCount.get(),
+                totalBorrowWaitNanos.get(), maxBorrowWaitNanos.get());
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    void release(PoolEntry entry) {
+        try {
+            entry.getConnection().rollback();
+        } catch (SQLException e) {
+            discard(entry);
+            return;
+        }
+        if (closed) {
+            discard(entry);
+        } else {
+            idleConnections.offerFirst(entry);
+        }
+    }
+
+    /**
+     * Espera a que se devuelva una conexión. Espera por tramos cortos para enterarse de que se ha descartado
+     * alguna conexión, porque entonces se puede abrir otra en lugar de seguir esperando.
+     *
+     * @param deadline El instante límite, según {@link System#nanoTime()}.
+     * @return La conexión devuelta, o null si ya se puede abrir una nueva.
+     */
+    private PoolEntry awaitIdleConnection(long deadline) throws SQLException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            PoolEntry entry;
+            try {
+                entry = idleConnections.pollFirst(Math.min(remaining, WAIT_SLICE_NANOS),
+                        TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+            if (entry != null) {
+                return entry;
+            }
+            if (closed) {
+                throw new SQLException("Connection manager is closed");
+            }
+            if (openConnections.get() < maxConnections) {
+                return null;
+            }
+        }
+        throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a connection");
+    }
+
+    private PoolEntry openConnection() throws SQLException {
+        try {
+            Connection connection = DriverManager.getConnection(url);
+            connection.setAutoCommit(false);
+            return new PoolEntry(connection);
+        } catch (SQLException e) {
+            openConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void discard(PoolEntry entry) {
+        openConnections.decrementAndGet();
+        entry.closePhysical();
+    }
+
+    private void recordBorrowWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalBorrowWaitNanos.addAndGet(waitNanos);
+        long max = maxBorrowWaitNanos.get();
+        while (waitNanos > max && !maxBorrowWaitNanos.compareAndSet(max, waitNanos)) {
+            max = maxBorrowWaitNanos.get();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package database;
+
+/**
+ * Clase ConnectionPoolMetrics que representa una instantánea de las métricas de un {@link ConnectionManager}.
+ */
+public class ConnectionPoolMetrics {
+    private final int openConnections;
+    private final int idleConnections;
+    private final long borrowCount;
+    private final long totalBorrowWaitNanos;
+    private final long maxBorrowWaitNanos;
+
+    /**
+     * Constructor de la clase ConnectionPoolMetrics.
+     *
+     * @param openConnections      Las conexiones físicas abiertas.
+     * @param idleConnections      Las conexiones abiertas que no están prestadas.
+     * @param borrowCount          El número de préstamos realizados.
+     * @param totalBorrowWaitNanos El tiempo total de espera de los préstamos en nanosegundos.
+     * @param maxBorrowWaitNanos   La mayor espera de un préstamo en nanosegundos.
+     */
+    public ConnectionPoolMetrics(int openConnections, int idleConnections, long borrowCount,
+                                 long totalBorrowWaitNanos, long maxBorrowWaitNanos) {
+        this.openConnections = openConnections;
+        this.idleConnections = idleConnections;
+        this.borrowCount = borrowCount;
+        this.totalBorrowWaitNanos = totalBorrowWaitNanos;
+        this.maxBorrowWaitNanos = maxBorrowWaitNanos;
+    }
+
+    public int getOpenConnections() {
+        return openConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTotalBorrowWaitNanos() {
+        return totalBorrowWaitNanos;
+    }
+
+    public long getMaxBorrowWaitNanos() {
+        return maxBorrowWaitNanos;
+    }
+
+    /**
+     * Calcula la espera media de un préstamo.
+     *
+     * @return La espera media en nanosegundos, o 0 si no ha habido préstamos.
+     */
+    public double getAverageBorrowWaitNanos() {
+        return borrowCount == 0 ? 0 : (double) totalBorrowWaitNanos / borrowCount;
+    }
+
+    /**
+     * Devuelve una cadena de caracteres que representa estas métricas.
+     *
+     * @return Una cadena con las conexiones y las esperas.
+     */
+    @Override
+    public String toString() {
+        return String.format("open=%d idle=%d borrows=%d avgWait=%.3f ms maxWait=%.3f ms",
+                openConnections, idleConnections, borrowCount,
+                getAverageBorrowWaitNanos() / 1_000_000.0, maxBorrowWaitNanos / 1_000_000.0);
+    }
+}
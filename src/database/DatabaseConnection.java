@@ -1,70 +1,139 @@
-package database;
-
-import models.Pokemon;
-import models.PokemonType;
-
-import java.lang.reflect.InvocationTargetException;
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
-public class DatabaseConnection {
-
-    private static final String URL = "jdbc:sqlite:src\\database\\pokemon.db"; //TODO: cambia esta picha
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "root";
-
-    public static void SaveAllPokemons(List<Pokemon> pokemons) throws SQLException {
-        Connection connection = createNewConnection();
-        Statement statement = connection.createStatement();
-
-        statement.executeUpdate("DELETE FROM pokemon");
-        for (int i = 0; i < pokemons.size(); i++) {
-            statement.executeUpdate("INSERT INTO pokemon (id, name, health, attack, defense, speed, type) VALUES (" +
-                    i + ", " +
-                    "'" + pokemons.get(i).getName() + "', " +
-                    pokemons.get(i).getHealth() + ", " +
-                    pokemons.get(i).getAttack() + ", " +
-                    pokemons.get(i).getDefense() + ", " +
-                    pokemons.get(i).getSpeed() + ", " +
-                    "'" + pokemons.get(i).getType().name() + "')");
-        }
-
-        connection.commit();
-        connection.close();
-    }
-
-    public static List<Pokemon> GetAllPokemons() throws SQLException {
-        Connection connection = createNewConnection();
-        Statement statement = connection.createStatement();
-        ResultSet resultSet = statement.executeQuery("SELECT * FROM pokemon");
-        List<Pokemon> pokemons = new ArrayList<>();
-
-        while (resultSet.next()) {
-            String name = resultSet.getString("name");
-            double health = resultSet.getDouble("health");
-            double attack = resultSet.getDouble("attack");
-            double defense = resultSet.getDouble("defense");
-            double speed = resultSet.getDouble("speed");
-            PokemonType type = PokemonType.valueOf(resultSet.getString("type"));
-
-            try {
-                pokemons.add(Pokemon.createForClassName(type.getClassName(), name, health, attack, defense, speed));
-            } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException |
-                     InvocationTargetException | InstantiationException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        connection.commit();
-        connection.close();
-
-        return pokemons;
-    }
-
-    private static Connection createNewConnection() throws SQLException {
-        Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-        connection.setAutoCommit(false);
-        return connection;
-    }
-}
+package database;
+
+import models.Pokemon;
+import models.PokemonChangeSet;
+import models.PokemonType;
+import models.roster.ColumnarRoster;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DatabaseConnection {
+
+    private static final PokemonBulkWriter BULK_WRITER = new PokemonBulkWriter();
+
+    public static WriteStatistics SaveAllPokemons(List<Pokemon> pokemons) throws SQLException {
+        return SaveAllPokemons(pokemons, BULK_WRITER);
+    }
+
+    public static WriteStatistics SaveAllPokemons(List<Pokemon> pokemons, PokemonBulkWriter writer) throws SQLException {
+        try (PooledConnection connection = ConnectionManager.getDefault().borrow()) {
+            writer.applySessionSettings(connection.getConnection());
+            return writer.replaceAll(connection, pokemons);
+        }
+    }
+
+    public static WriteStatistics SavePokemonChanges(PokemonChangeSet changeSet) throws SQLException {
+        return SavePokemonChanges(changeSet, WriteProgressListener.NONE);
+    }
+
+    public static WriteStatistics SavePokemonChanges(PokemonChangeSet changeSet, WriteProgressListener listener) throws SQLException {
+        try (PooledConnection connection = ConnectionManager.getDefault().borrow()) {
+            BULK_WRITER.applySessionSettings(connection.getConnection());
+            return BULK_WRITER.applyChanges(connection, changeSet, listener);
+        }
+    }
+
+    public static List<Pokemon> GetAllPokemons() throws SQLException {
+        return new ArrayList<>(GetAllPokemonRows().values());
+    }
+
+    public static Map<Long, Pokemon> GetAllPokemonRows() throws SQLException {
+        try (PooledConnection connection = ConnectionManager.getDefault().borrow()) {
+            Map<Long, Pokemon> pokemons = new LinkedHashMap<>();
+            try (ResultSet resultSet = connection.prepare("SELECT * FROM pokemon ORDER BY id").executeQuery()) {
+                while (resultSet.next()) {
+                    pokemons.put(resultSet.getLong("id"), readPokemon(resultSet));
+                }
+            }
+            connection.getConnection().commit();
+
+            return pokemons;
+        }
+    }
+
+    public static ColumnarRoster GetPokemonRoster() throws SQLException {
+        try (PooledConnection connection = ConnectionManager.getDefault().borrow()) {
+            ColumnarRoster roster = new ColumnarRoster();
+            try (ResultSet resultSet = connection.prepare("SELECT * FROM pokemon ORDER BY id").executeQuery()) {
+                while (resultSet.next()) {
+                    roster.add(resultSet.getString("name"), PokemonType.valueOf(resultSet.getString("type")),
+                            resultSet.getDouble("health"), resultSet.getDouble("attack"),
+                            resultSet.getDouble("defense"), resultSet.getDouble("speed"));
+                }
+            }
+            connection.getConnection().commit();
+
+            return roster;
+        }
+    }
+
+    public static DatabasePokemonPageSource OpenPokemonPages() throws SQLException {
+        try (PooledConnection connection = ConnectionManager.getDefault().borrow()) {
+            int rowCount;
+            try (ResultSet resultSet = connection.prepare("SELECT COUNT(*) FROM pokemon").executeQuery()) {
+                rowCount = resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+            connection.getConnection().commit();
+            return new DatabasePokemonPageSource(ConnectionManager.getDefault(), rowCount);
+        }
+    }
+
+    public static MappedRoster OpenRosterFile(Path path) throws IOException {
+        return MappedRoster.open(path);
+    }
+
+    public static int ExportRosterFile(Path path) throws SQLException, IOException {
+        try (PooledConnection connection = ConnectionManager.getDefault().borrow()) {
+            int rowCount;
+            try (ResultSet resultSet = connection.prepare("SELECT COUNT(*) FROM pokemon").executeQuery()) {
+                rowCount = resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+            try (RosterFileWriter writer = new RosterFileWriter(path, rowCount);
+                 ResultSet resultSet = connection.prepare("SELECT * FROM pokemon ORDER BY id").executeQuery()) {
+                while (resultSet.next()) {
+                    writer.add(resultSet.getLong("id"), resultSet.getString("name"),
+                            PokemonType.valueOf(resultSet.getString("type")),
+                            resultSet.getDouble("health"), resultSet.getDouble("attack"),
+                            resultSet.getDouble("defense"), resultSet.getDouble("speed"));
+                }
+            }
+            connection.getConnection().commit();
+
+            return rowCount;
+        }
+    }
+
+    public static WriteStatistics ImportRosterFile(Path path) throws SQLException, IOException {
+        MappedRoster roster = MappedRoster.open(path);
+        try (PooledConnection connection = ConnectionManager.getDefault().borrow()) {
+            BULK_WRITER.applySessionSettings(connection.getConnection());
+            return BULK_WRITER.replaceAll(connection, roster);
+        }
+    }
+
+    static Pokemon readPokemon(ResultSet resultSet) throws SQLException {
+        String name = resultSet.getString("name");
+        double health = resultSet.getDouble("health");
+        double attack = resultSet.getDouble("attack");
+        double defense = resultSet.getDouble("defense");
+        double speed = resultSet.getDouble("speed");
+        PokemonType type = PokemonType.valueOf(resultSet.getString("type"));
+
+        return type.createPokemon(name, health, attack, defense, speed);
+    }
+
+    public static ConnectionPoolMetrics GetConnectionMetrics() {
+        return ConnectionManager.getDefault().getMetrics();
+    }
+
+    public static void CloseConnections() {
+        ConnectionManager.getDefault().close();
+    }
+}
@@ -0,0 +1,82 @@
+package database;
+
+import models.Pokemon;
+import models.swing.PokemonPage;
+import models.swing.PokemonPageSource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Clase DatabasePokemonPageSource que lee la tabla pokemon por páginas ordenadas por id.
+ * Las páginas consecutivas se piden por clave (id &gt; último id leído), que usa el índice de la clave primaria;
+ * solo los saltos a una posición desconocida usan OFFSET.
+ */
+public class DatabasePokemonPageSource implements PokemonPageSource {
+
+    private static final String PAGE_AT_SQL = "SELECT * FROM pokemon ORDER BY id LIMIT ? OFFSET ?";
+    private static final String PAGE_AFTER_SQL = "SELECT * FROM pokemon WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final ConnectionManager connectionManager;
+    private final int rowCount;
+
+    /**
+     * Constructor de la clase DatabasePokemonPageSource.
+     *
+     * @param connectionManager El gestor del que se toman las conexiones para leer cada página.
+     * @param rowCount          El número de filas de la tabla en el momento de abrirla.
+     */
+    public DatabasePokemonPageSource(ConnectionManager connectionManager, int rowCount) {
+        this.connectionManager = connectionManager;
+        this.rowCount = rowCount;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public PokemonPage loadPageAt(int offset, int limit) {
+        try (PooledConnection connection = connectionManager.borrow()) {
+            PreparedStatement statement = connection.prepare(PAGE_AT_SQL);
+            statement.setInt(1, limit);
+            statement.setInt(2, offset);
+            return readPage(connection, statement, limit);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public PokemonPage loadPageAfter(long afterId, int limit) {
+        try (PooledConnection connection = connectionManager.borrow()) {
+            PreparedStatement statement = connection.prepare(PAGE_AFTER_SQL);
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            return readPage(connection, statement, limit);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static PokemonPage readPage(PooledConnection connection, PreparedStatement statement, int limit) throws SQLException {
+        long[] ids = new long[limit];
+        Pokemon[] pokemons = new Pokemon[limit];
+        int size = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next() && size < limit) {
+                ids[size] = resultSet.getLong("id");
+                pokemons[size] = DatabaseConnection.readPokemon(resultSet);
+                size++;
+            }
+        }
+        connection.getConnection().commit();
+        if (size < limit) {
+            return new PokemonPage(Arrays.copyOf(ids, size), Arrays.copyOf(pokemons, size));
+        }
+        return new PokemonPage(ids, pokemons);
+    }
+}
@@ -0,0 +1,217 @@
+package database;
+
+import models.Pokemon;
+import models.PokemonType;
+import models.swing.PokemonPage;
+import models.swing.PokemonPageSource;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Clase MappedRoster que lee un fichero de roster proyectado en memoria con {@link FileChannel#map}.
+ * Abrir el fichero no lee ni crea nada: cada página se construye leyendo directamente del fichero proyectado,
+ * así que una Pokedex de millones de Pokemon se abre al instante y solo ocupa memoria lo que se muestra.
+ * <p>
+ * Formato del fichero, en little-endian:
+ * <ul>
+ * <li>Cabecera de {@value #HEADER_SIZE} bytes: la firma {@value #MAGIC}, la versión, el número de registros,
+ * el tamaño de cada registro, y la posición y longitud de la tabla de nombres.</li>
+ * <li>Un registro de {@value #RECORD_SIZE} bytes por Pokemon, ordenados por id: el id, la salud, el ataque,
+ * la defensa y la velocidad, la posición y longitud de su nombre en la tabla de nombres, y el ordinal del tipo
+ * (-1 si no tiene un tipo conocido).</li>
+ * <li>La tabla de nombres, con todos los nombres en UTF-8 uno detrás de otro.</li>
+ * </ul>
+ * Los ficheros se escriben con {@link RosterFileWriter}.
+ */
+public class MappedRoster implements PokemonPageSource {
+
+    static final int MAGIC = 0x58444B50; // "PKDX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 48;
+
+    static final int ID_OFFSET = 0;
+    static final int HEALTH_OFFSET = 8;
+    static final int ATTACK_OFFSET = 16;
+    static final int DEFENSE_OFFSET = 24;
+    static final int SPEED_OFFSET = 32;
+    static final int NAME_OFFSET_OFFSET = 40;
+    static final int NAME_LENGTH_OFFSET = 44;
+    static final int TYPE_OFFSET = 46;
+
+    private static final PokemonType[] TYPES = PokemonType.values();
+
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int stringTableOffset;
+
+    private MappedRoster(MappedByteBuffer buffer, int rowCount, int stringTableOffset) {
+        this.buffer = buffer;
+        this.rowCount = rowCount;
+        this.stringTableOffset = stringTableOffset;
+    }
+
+    /**
+     * Abre un fichero de roster proyectándolo en memoria en modo solo lectura.
+     * La proyección sigue siendo válida después de cerrar el canal y se libera cuando se recoge el objeto.
+     *
+     * @param path La ruta del fichero.
+     * @return El roster proyectado.
+     * @throws IOException si no se puede leer el fichero o no tiene el formato esperado.
+     */
+    public static MappedRoster open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Roster file too large to map: " + fileSize + " bytes");
+            }
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Not a roster file: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a roster file: " + path);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported roster file version " + version + ": " + path);
+            }
+            int rowCount = buffer.getInt(8);
+            int recordSize = buffer.getInt(12);
+            long stringTableOffset = buffer.getLong(16);
+            long stringTableLength = buffer.getLong(24);
+            if (recordSize != RECORD_SIZE || rowCount < 0
+                    || stringTableOffset != HEADER_SIZE + (long) rowCount * RECORD_SIZE
+                    || stringTableOffset + stringTableLength != fileSize) {
+                throw new IOException("Corrupt roster file: " + path);
+            }
+            return new MappedRoster(buffer, rowCount, (int) stringTableOffset);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public PokemonPage loadPageAt(int offset, int limit) {
+        int end = (int) Math.min(rowCount, (long) Math.max(0, offset) + limit);
+        int start = Math.min(Math.max(0, offset), end);
+        long[] ids = new long[end - start];
+        Pokemon[] pokemons = new Pokemon[end - start];
+        for (int i = start; i < end; i++) {
+            ids[i - start] = getId(i);
+            pokemons[i - start] = getPokemon(i);
+        }
+        return new PokemonPage(ids, pokemons);
+    }
+
+    @Override
+    public PokemonPage loadPageAfter(long afterId, int limit) {
+        return loadPageAt(indexAfter(afterId), limit);
+    }
+
+    /**
+     * Busca la posición del primer registro cuyo id es mayor que el dado. Los registros están ordenados por id.
+     *
+     * @param afterId El id.
+     * @return La posición, o el número de registros si no hay ninguno mayor.
+     */
+    public int indexAfter(long afterId) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getId(middle) <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public long getId(int index) {
+        return buffer.getLong(recordOffset(index) + ID_OFFSET);
+    }
+
+    public double getHealth(int index) {
+        return buffer.getDouble(recordOffset(index) + HEALTH_OFFSET);
+    }
+
+    public double getAttack(int index) {
+        return buffer.getDouble(recordOffset(index) + ATTACK_OFFSET);
+    }
+
+    public double getDefense(int index) {
+        return buffer.getDouble(recordOffset(index) + DEFENSE_OFFSET);
+    }
+
+    public double getSpeed(int index) {
+        return buffer.getDouble(recordOffset(index) + SPEED_OFFSET);
+    }
+
+    /**
+     * Obtiene el tipo de un registro.
+     *
+     * @param index La posición del registro.
+     * @return El tipo, o null si no tiene un tipo conocido.
+     */
+    public PokemonType getType(int index) {
+        byte ordinal = buffer.get(recordOffset(index) + TYPE_OFFSET);
+        return ordinal < 0 || ordinal >= TYPES.length ? null : TYPES[ordinal];
+    }
+
+    /**
+     * Obtiene el nombre de un registro, decodificándolo de la tabla de nombres.
+     *
+     * @param index La posición del registro.
+     * @return El nombre.
+     */
+    public String getName(int index) {
+        int record = recordOffset(index);
+        int offset = stringTableOffset + buffer.getInt(record + NAME_OFFSET_OFFSET);
+        int length = buffer.getShort(record + NAME_LENGTH_OFFSET) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Crea un Pokemon con los datos de un registro.
+     *
+     * @param index La posición del registro.
+     * @return Un Pokemon de la clase de su tipo.
+     * @throws IllegalStateException si el registro no tiene un tipo conocido.
+     */
+    public Pokemon getPokemon(int index) {
+        PokemonType type = getType(index);
+        if (type == null) {
+            throw new IllegalStateException("Roster record " + index + " has no known type");
+        }
+        return type.createPokemon(getName(index), getHealth(index), getAttack(index), getDefense(index), getSpeed(index));
+    }
+
+    private int recordOffset(int index) {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rowCount);
+        }
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    @Override
+    public String toString() {
+        return rowCount + " pokemon mapped (" + (buffer.capacity() / 1024) + " KiB)";
+    }
+}
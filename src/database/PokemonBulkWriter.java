@@ -0,0 +1,273 @@
+package database;
+
+import models.Pokemon;
+import models.PokemonChangeSet;
+import models.PokemonType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Clase PokemonBulkWriter que escribe grandes cantidades de Pokemon en la tabla pokemon.
+ * Reutiliza los PreparedStatement en caché de la conexión prestada y agrupa las filas en lotes JDBC del tamaño configurado,
+ * aplicando antes los ajustes de SQLite (modo de journal y nivel de sincronización) a la sesión.
+ */
+public class PokemonBulkWriter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO pokemon (id, name, health, attack, defense, speed, type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // sqlite-jdbc 3.20 no soporta ON CONFLICT ... DO UPDATE; con id como PRIMARY KEY, OR REPLACE equivale a un upsert
+    private static final String UPSERT_SQL =
+            "INSERT OR REPLACE INTO pokemon (id, name, health, attack, defense, speed, type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM pokemon WHERE id = ?";
+    private static final String DELETE_ALL_SQL = "DELETE FROM pokemon";
+
+    /**
+     * Modos de journal soportados por SQLite (PRAGMA journal_mode).
+     */
+    public enum JournalMode {
+        DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF
+    }
+
+    /**
+     * Niveles de sincronización soportados por SQLite (PRAGMA synchronous).
+     */
+    public enum SynchronousLevel {
+        OFF, NORMAL, FULL, EXTRA
+    }
+
+    private final int batchSize;
+    private final JournalMode journalMode;
+    private final SynchronousLevel synchronousLevel;
+
+    /**
+     * Constructor por defecto: lotes de {@link #DEFAULT_BATCH_SIZE} filas, journal WAL y sincronización NORMAL.
+     */
+    public PokemonBulkWriter() {
+        this(DEFAULT_BATCH_SIZE, JournalMode.WAL, SynchronousLevel.NORMAL);
+    }
+
+    /**
+     * Constructor de la clase PokemonBulkWriter.
+     *
+     * @param batchSize        El número de filas que se envían en cada lote JDBC.
+     * @param journalMode      El modo de journal que se aplica a la sesión.
+     * @param synchronousLevel El nivel de sincronización que se aplica a la sesión.
+     */
+    public PokemonBulkWriter(int batchSize, JournalMode journalMode, SynchronousLevel synchronousLevel) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.journalMode = journalMode;
+        this.synchronousLevel = synchronousLevel;
+    }
+
+    /**
+     * Aplica el modo de journal y el nivel de sincronización a la conexión.
+     * SQLite no permite cambiar el modo de journal dentro de una transacción, así que los PRAGMA
+     * se ejecutan en modo auto-commit y después se restaura el modo original de la conexión.
+     *
+     * @param connection La conexión a configurar.
+     * @throws SQLException si ocurre algún error al ejecutar los PRAGMA.
+     */
+    public void applySessionSettings(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (!autoCommit) {
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = " + journalMode.name());
+            statement.execute("PRAGMA synchronous = " + synchronousLevel.name());
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Sustituye todo el contenido de la tabla pokemon por la lista dada en una única transacción.
+     * El id de cada fila es su posición en la lista.
+     *
+     * @param pooledConnection La conexión prestada, con auto-commit desactivado.
+     * @param pokemons   Los Pokemon a guardar.
+     * @return Las estadísticas de la escritura, incluido el commit.
+     * @throws SQLException si ocurre algún error durante la escritura; la transacción se deshace.
+     */
+    public WriteStatistics replaceAll(PooledConnection pooledConnection, List<Pokemon> pokemons) throws SQLException {
+        Connection connection = pooledConnection.getConnection();
+        long start = System.nanoTime();
+        try {
+            pooledConnection.prepare(DELETE_ALL_SQL).executeUpdate();
+
+            PreparedStatement insert = pooledConnection.prepare(INSERT_SQL);
+            int pending = 0;
+            for (int i = 0; i < pokemons.size(); i++) {
+                bind(insert, i, pokemons.get(i));
+                pending = addToBatch(insert, pending);
+            }
+            flushBatch(insert, pending);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        return new WriteStatistics(pokemons.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Sustituye todo el contenido de la tabla pokemon por los registros de un fichero de roster en una única transacción,
+     * conservando sus ids. Los registros se leen del fichero proyectado sin crear ningún Pokemon.
+     *
+     * @param pooledConnection La conexión prestada, con auto-commit desactivado.
+     * @param roster           El roster proyectado.
+     * @return Las estadísticas de la escritura, incluido el commit.
+     * @throws SQLException si ocurre algún error durante la escritura o un registro no tiene un tipo conocido;
+     *                      la transacción se deshace.
+     */
+    public WriteStatistics replaceAll(PooledConnection pooledConnection, MappedRoster roster) throws SQLException {
+        Connection connection = pooledConnection.getConnection();
+        long start = System.nanoTime();
+        try {
+            pooledConnection.prepare(DELETE_ALL_SQL).executeUpdate();
+
+            PreparedStatement insert = pooledConnection.prepare(INSERT_SQL);
+            int pending = 0;
+            for (int i = 0; i < roster.getRowCount(); i++) {
+                PokemonType type = roster.getType(i);
+                if (type == null) {
+                    throw new SQLException("Roster record " + i + " has no known type");
+                }
+                bind(insert, roster.getId(i), roster.getName(i), roster.getHealth(i), roster.getAttack(i),
+                        roster.getDefense(i), roster.getSpeed(i), type);
+                pending = addToBatch(insert, pending);
+            }
+            flushBatch(insert, pending);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        return new WriteStatistics(roster.getRowCount(), System.nanoTime() - start);
+    }
+
+    /**
+     * Aplica un conjunto de cambios en una única transacción: primero los deletes y después los upserts.
+     * Si el conjunto es un reemplazo completo, la tabla se vacía antes.
+     *
+     * @param pooledConnection La conexión prestada, con auto-commit desactivado.
+     * @param changeSet  Los cambios a guardar.
+     * @return Las estadísticas de la escritura, contando cada upsert y cada delete como una fila.
+     * @throws SQLException si ocurre algún error durante la escritura; la transacción se deshace.
+     */
+    public WriteStatistics applyChanges(PooledConnection pooledConnection, PokemonChangeSet changeSet) throws SQLException {
+        return applyChanges(pooledConnection, changeSet, WriteProgressListener.NONE);
+    }
+
+    /**
+     * Aplica un conjunto de cambios en una única transacción informando del progreso después de cada lote.
+     * Si el listener pide cancelar, la transacción se deshace y se lanza una CancellationException.
+     *
+     * @param pooledConnection La conexión prestada, con auto-commit desactivado.
+     * @param changeSet        Los cambios a guardar.
+     * @param listener         El listener que recibe el progreso y decide si se cancela.
+     * @return Las estadísticas de la escritura, contando cada upsert y cada delete como una fila.
+     * @throws SQLException si ocurre algún error durante la escritura; la transacción se deshace.
+     */
+    public WriteStatistics applyChanges(PooledConnection pooledConnection, PokemonChangeSet changeSet,
+                                        WriteProgressListener listener) throws SQLException {
+        Connection connection = pooledConnection.getConnection();
+        long start = System.nanoTime();
+        try {
+            if (changeSet.isFullReplace()) {
+                pooledConnection.prepare(DELETE_ALL_SQL).executeUpdate();
+            }
+
+            int total = changeSet.size();
+            int written = 0;
+            PreparedStatement delete = pooledConnection.prepare(DELETE_SQL);
+            for (long id : changeSet.getDeletes()) {
+                delete.setLong(1, id);
+                delete.addBatch();
+                if (++written % batchSize == 0) {
+                    executeBatch(delete, written, total, listener);
+                }
+            }
+            executeBatch(delete, written, total, listener);
+
+            PreparedStatement upsert = pooledConnection.prepare(UPSERT_SQL);
+            for (Map.Entry<Long, Pokemon> row : changeSet.getUpserts().entrySet()) {
+                bind(upsert, row.getKey(), row.getValue());
+                upsert.addBatch();
+                if (++written % batchSize == 0) {
+                    executeBatch(upsert, written, total, listener);
+                }
+            }
+            executeBatch(upsert, written, total, listener);
+            connection.commit();
+        } catch (SQLException | CancellationException e) {
+            connection.rollback();
+            throw e;
+        }
+        return new WriteStatistics(changeSet.size(), System.nanoTime() - start);
+    }
+
+    private int addToBatch(PreparedStatement statement, int pending) throws SQLException {
+        statement.addBatch();
+        if (++pending == batchSize) {
+            statement.executeBatch();
+            return 0;
+        }
+        return pending;
+    }
+
+    private static void executeBatch(PreparedStatement statement, int written, int total,
+                                     WriteProgressListener listener) throws SQLException {
+        if (listener.isCancelled()) {
+            throw new CancellationException("Write cancelled after " + written + " of " + total + " rows");
+        }
+        statement.executeBatch();
+        listener.onProgress(written, total);
+    }
+
+    private static void flushBatch(PreparedStatement statement, int pending) throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, long id, Pokemon pokemon) throws SQLException {
+        bind(statement, id, pokemon.getName(), pokemon.getHealth(), pokemon.getAttack(), pokemon.getDefense(),
+                pokemon.getSpeed(), pokemon.getType());
+    }
+
+    private static void bind(PreparedStatement statement, long id, String name, double health, double attack,
+                             double defense, double speed, PokemonType type) throws SQLException {
+        statement.setLong(1, id);
+        statement.setString(2, name);
+        statement.setDouble(3, health);
+        statement.setDouble(4, attack);
+        statement.setDouble(5, defense);
+        statement.setDouble(6, speed);
+        statement.setString(7, type.name());
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public JournalMode getJournalMode() {
+        return journalMode;
+    }
+
+    public SynchronousLevel getSynchronousLevel() {
+        return synchronousLevel;
+    }
+}
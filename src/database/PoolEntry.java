@@ -0,0 +1,60 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Clase PoolEntry que representa una conexión física del {@link ConnectionManager}, con su caché de
+ * PreparedStatement por SQL. Vive mientras la conexión está abierta y se presta a través de un
+ * {@link PooledConnection} distinto en cada préstamo.
+ */
+class PoolEntry {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+
+    PoolEntry(Connection connection) {
+        this.connection = connection;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statementCache.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statementCache.put(sql, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    boolean isValid() {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        for (PreparedStatement statement : statementCache.values()) {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // La conexión se va a cerrar igualmente
+            }
+        }
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clase PooledConnection que representa un préstamo de una conexión física de un {@link ConnectionManager}.
+ * Los PreparedStatement se guardan en caché con la conexión física, así que no se vuelven a preparar en cada
+ * préstamo, y al cerrar el préstamo la conexión se devuelve al gestor en lugar de cerrarse.
+ * <p>
+ * Cada préstamo es un objeto nuevo que solo puede devolver la conexión una vez: cerrarlo de nuevo, aunque la
+ * conexión ya se haya prestado a otro, no hace nada, y usarlo después de cerrarlo lanza una excepción.
+ */
+public class PooledConnection implements AutoCloseable {
+    private final ConnectionManager manager;
+    private final AtomicReference<PoolEntry> entry;
+
+    PooledConnection(ConnectionManager manager, PoolEntry entry) {
+        this.manager = manager;
+        this.entry = new AtomicReference<>(entry);
+    }
+
+    /**
+     * Devuelve la conexión física. No se debe cerrar directamente.
+     *
+     * @return La conexión JDBC.
+     * @throws IllegalStateException si el préstamo ya se ha cerrado.
+     */
+    public Connection getConnection() {
+        return entry().getConnection();
+    }
+
+    /**
+     * Devuelve un PreparedStatement para el SQL dado, preparándolo solo la primera vez.
+     * El statement pertenece a la caché y no se debe cerrar.
+     *
+     * @param sql La sentencia SQL.
+     * @return El PreparedStatement en caché, con los parámetros limpios.
+     * @throws SQLException si ocurre algún error al preparar la sentencia.
+     * @throws IllegalStateException si el préstamo ya se ha cerrado.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return entry().prepare(sql);
+    }
+
+    /**
+     * Devuelve la conexión al gestor. Cualquier transacción sin confirmar se deshace.
+     * Solo la primera llamada devuelve la conexión; las siguientes no hacen nada.
+     */
+    @Override
+    public void close() {
+        PoolEntry released = entry.getAndSet(null);
+        if (released != null) {
+            manager.release(released);
+        }
+    }
+
+    private PoolEntry entry() {
+        PoolEntry current = entry.get();
+        if (current == null) {
+            throw new IllegalStateException("Connection already returned to the pool");
+        }
+        return current;
+    }
+}
@@ -0,0 +1,136 @@
+package database;
+
+import models.PokemonType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Clase RosterFileWriter que escribe un fichero de roster con el formato que lee {@link MappedRoster}.
+ * Los registros se escriben directamente en el fichero proyectado en memoria según se añaden, y los nombres
+ * se acumulan hasta cerrar el escritor, que escribe la tabla de nombres y por último la cabecera.
+ * Un fichero sin cabecera no se puede abrir, así que una escritura interrumpida no deja un roster a medias.
+ */
+public class RosterFileWriter implements AutoCloseable {
+
+    private static final int MAX_NAME_LENGTH = 0xFFFF;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer records;
+    private final int rowCount;
+    private final ByteArrayOutputStream names = new ByteArrayOutputStream();
+    private int written;
+    private long lastId = Long.MIN_VALUE;
+    private boolean closed;
+
+    /**
+     * Constructor de la clase RosterFileWriter. Crea el fichero, o lo vacía si ya existe.
+     *
+     * @param path     La ruta del fichero.
+     * @param rowCount El número exacto de registros que se van a escribir.
+     * @throws IOException si no se puede crear el fichero o el roster no cabe en una proyección.
+     */
+    public RosterFileWriter(Path path, int rowCount) throws IOException {
+        long recordsSize = MappedRoster.HEADER_SIZE + (long) rowCount * MappedRoster.RECORD_SIZE;
+        if (rowCount < 0 || recordsSize > Integer.MAX_VALUE) {
+            throw new IOException("Cannot write a roster file with " + rowCount + " pokemon");
+        }
+        this.rowCount = rowCount;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            this.records = channel.map(FileChannel.MapMode.READ_WRITE, 0, recordsSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        records.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Añade el siguiente registro. Los ids deben ser crecientes.
+     *
+     * @param id      El id del Pokemon.
+     * @param name    El nombre del Pokemon.
+     * @param type    El tipo del Pokemon, o null si no tiene un tipo conocido.
+     * @param health  La salud del Pokemon.
+     * @param attack  El ataque del Pokemon.
+     * @param defense La defensa del Pokemon.
+     * @param speed   La velocidad del Pokemon.
+     * @throws IOException si ya se han escrito todos los registros, el id no es creciente o el nombre es demasiado largo.
+     */
+    public void add(long id, String name, PokemonType type, double health, double attack, double defense, double speed)
+            throws IOException {
+        if (written == rowCount) {
+            throw new IOException("All " + rowCount + " records have already been written");
+        }
+        if (written > 0 && id <= lastId) {
+            throw new IOException("Roster ids must be increasing: " + id + " after " + lastId);
+        }
+        byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+        if (encodedName.length > MAX_NAME_LENGTH) {
+            throw new IOException("Name too long for a roster file: " + encodedName.length + " bytes");
+        }
+
+        int record = MappedRoster.HEADER_SIZE + written * MappedRoster.RECORD_SIZE;
+        records.putLong(record + MappedRoster.ID_OFFSET, id);
+        records.putDouble(record + MappedRoster.HEALTH_OFFSET, health);
+        records.putDouble(record + MappedRoster.ATTACK_OFFSET, attack);
+        records.putDouble(record + MappedRoster.DEFENSE_OFFSET, defense);
+        records.putDouble(record + MappedRoster.SPEED_OFFSET, speed);
+        records.putInt(record + MappedRoster.NAME_OFFSET_OFFSET, names.size());
+        records.putShort(record + MappedRoster.NAME_LENGTH_OFFSET, (short) encodedName.length);
+        records.put(record + MappedRoster.TYPE_OFFSET, type == null ? -1 : (byte) type.ordinal());
+        names.write(encodedName, 0, encodedName.length);
+
+        lastId = id;
+        written++;
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    /**
+     * Escribe la tabla de nombres y la cabecera, y cierra el fichero.
+     *
+     * @throws IOException si no se han escrito todos los registros o falla la escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (written != rowCount) {
+                throw new IOException("Only " + written + " of " + rowCount + " records were written");
+            }
+            long stringTableOffset = MappedRoster.HEADER_SIZE + (long) rowCount * MappedRoster.RECORD_SIZE;
+            if (stringTableOffset + names.size() > Integer.MAX_VALUE) {
+                throw new IOException("Roster file too large to map: " + (stringTableOffset + names.size()) + " bytes");
+            }
+            MappedByteBuffer stringTable = channel.map(FileChannel.MapMode.READ_WRITE, stringTableOffset, names.size());
+            stringTable.put(names.toByteArray());
+            stringTable.force();
+
+            // La cabecera se escribe la última, cuando el resto del fichero ya está en disco
+            records.force();
+            records.putInt(0, MappedRoster.MAGIC);
+            records.putInt(4, MappedRoster.VERSION);
+            records.putInt(8, rowCount);
+            records.putInt(12, MappedRoster.RECORD_SIZE);
+            records.putLong(16, stringTableOffset);
+            records.putLong(24, names.size());
+            records.force();
+        } finally {
+            channel.close();
+        }
+    }
+}
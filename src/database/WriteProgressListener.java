@@ -0,0 +1,37 @@
+package database;
+
+/**
+ * Interfaz WriteProgressListener que recibe el progreso de una escritura en la base de datos
+ * y permite cancelarla entre lotes.
+ */
+public interface WriteProgressListener {
+
+    /**
+     * Listener que no hace nada y nunca cancela.
+     */
+    WriteProgressListener NONE = new WriteProgressListener() {
+        @Override
+        public void onProgress(int written, int total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Se llama después de enviar cada lote.
+     *
+     * @param written Las operaciones enviadas hasta ahora.
+     * @param total   El total de operaciones de la escritura.
+     */
+    void onProgress(int written, int total);
+
+    /**
+     * Indica si se debe cancelar la escritura. Si devuelve true, la transacción se deshace.
+     *
+     * @return true para cancelar.
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,51 @@
+package database;
+
+/**
+ * Clase WriteStatistics que resume el resultado de una escritura en la base de datos:
+ * el número de filas escritas y el tiempo empleado.
+ */
+public class WriteStatistics {
+    private final int rows;
+    private final long elapsedNanos;
+
+    /**
+     * Constructor de la clase WriteStatistics.
+     *
+     * @param rows         El número de filas escritas.
+     * @param elapsedNanos El tiempo empleado en nanosegundos.
+     */
+    public WriteStatistics(int rows, long elapsedNanos) {
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calcula el rendimiento de la escritura.
+     *
+     * @return Las filas escritas por segundo, o 0 si no se ha medido tiempo.
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Devuelve una cadena de caracteres que representa estas estadísticas.
+     *
+     * @return Una cadena con las filas, los milisegundos y las filas por segundo.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d rows in %.1f ms (%.0f rows/s)", rows, elapsedNanos / 1_000_000.0, getRowsPerSecond());
+    }
+}
@@ -1,220 +1,272 @@
-package models;
-
-import java.lang.reflect.InvocationTargetException;
-
-/**
- * Clase abstracta Pokemon que implementa la interfaz Comparable y Cloneable.
- * Esta clase representa un Pokemon con atributos como nombre, salud, ataque, defensa y velocidad.
- */
-public abstract class Pokemon implements Comparable<Pokemon>, Cloneable {
-    private String name;
-    private double health;
-    private double attack;
-    private double defense;
-    private double speed;
-
-    /**
-     * Constructor de la clase Pokemon.
-     *
-     * @param name    El nombre del Pokemon.
-     * @param health  La salud del Pokemon.
-     * @param attack  El ataque del Pokemon.
-     * @param defense La defensa del Pokemon.
-     * @param speed   La velocidad del Pokemon.
-     */
-    public Pokemon(String name, double health, double attack, double defense, double speed) {
-        this.name = name;
-        this.health = health;
-        this.attack = attack;
-        this.defense = defense;
-        this.speed = speed;
-    }
-
-    /**
-     * Método que compara este Pokemon con otro basándose en su salud y la lucha resultante.
-     *
-     * @param pokemon El Pokemon a comparar.
-     * @return un valor entero que representa el resultado de la comparación.
-     */
-    @Override
-    public int compareTo(Pokemon pokemon) {
-        double thisPokemonHealth = getHealth();
-        double opponentPokemonHealth = pokemon.getHealth();
-
-        return fight(pokemon, thisPokemonHealth, opponentPokemonHealth);
-    }
-
-    /**
-     * Comprueba si un objeto es igual a este Pokemon.
-     * Para que dos Pokemon sean iguales, deben tener el mismo nombre, salud, ataque, defensa y velocidad.
-     *
-     * @param obj El objeto a comparar.
-     * @return true si los objetos son iguales, false de lo contrario.
-     */
-    @Override
-    public boolean equals(Object obj) {
-        if (!(obj instanceof Pokemon)) {
-            return false;
-        }
-
-        Pokemon pokemon = (Pokemon) obj;
-
-        return getName().equals(pokemon.getName()) &&
-                getHealth() == pokemon.getHealth() &&
-                getAttack() == pokemon.getAttack() &&
-                getDefense() == pokemon.getDefense() &&
-                getSpeed() == pokemon.getSpeed() &&
-                getClass() == pokemon.getClass();
-    }
-
-    /**
-     * Calcula el código hash de este Pokemon.
-     *
-     * @return El código hash.
-     */
-    @Override
-    public int hashCode() {
-        return getName().hashCode() +
-                Double.hashCode(getHealth()) +
-                Double.hashCode(getAttack()) +
-                Double.hashCode(getDefense()) +
-                Double.hashCode(getSpeed()) +
-                getClass().hashCode();
-    }
-
-    /**
-     * Método que obtiene el daño que este Pokemon puede hacer a otro Pokemon.
-     *
-     * @param pokemonToAttack El Pokemon al que se ataca.
-     * @return El daño que se puede hacer.
-     */
-    protected double getDamageAgainst(Pokemon pokemonToAttack) {
-        return getAttack() / getDefense();
-    }
-
-    private int fight(Pokemon opponent, double thisPokemonHealth, double opponentPokemonHealth) {
-        double damageAgainstOpponent = getDamageAgainst(opponent);
-        double damageAgainstThis = opponent.getDamageAgainst(this);
-
-        if (getSpeed() >= opponent.getSpeed()) {
-            if (damageAgainstOpponent >= opponentPokemonHealth) {
-                // This Pokémon wins
-                return 1;
-            } else {
-                // Other Pokémon attacks
-                opponentPokemonHealth -= damageAgainstOpponent;
-                return opponent.fight(opponent, thisPokemonHealth, opponentPokemonHealth);
-            }
-        } else {
-            if (damageAgainstThis >= thisPokemonHealth) {
-                // Opponent Pokémon wins
-                return -1;
-            } else {
-                // This Pokémon attacks
-                thisPokemonHealth -= damageAgainstThis;
-                return fight(opponent, thisPokemonHealth, opponentPokemonHealth);
-            }
-        }
-    }
-
-    /**
-     * Devuelve una cadena de caracteres que representa a este Pokemon.
-     *
-     * @return Una cadena de caracteres que representa a este Pokemon.
-     */
-    @Override
-    public String toString() {
-        return String.format("%s (%s)", getName(), getType().toString());
-    }
-
-    /**
-     * Devuelve el nombre de este Pokemon.
-     *
-     * @return El nombre de este Pokemon.
-     */
-    public String getName() {
-        return name;
-    }
-
-    /**
-     * Establece el nombre de este Pokemon.
-     *
-     * @param name El nuevo nombre del Pokemon.
-     */
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    public double getHealth() {
-        return health;
-    }
-
-    public void setHealth(double health) {
-        this.health = health;
-    }
-
-    public double getAttack() {
-        return attack;
-    }
-
-    public void setAttack(double attack) {
-        this.attack = attack;
-    }
-
-    public double getDefense() {
-        return defense;
-    }
-
-    public void setDefense(double defense) {
-        this.defense = defense;
-    }
-
-    public double getSpeed() {
-        return speed;
-    }
-
-    public void setSpeed(double speed) {
-        this.speed = speed;
-    }
-
-    /**
-     * Devuelve el tipo de este Pokemon.
-     *
-     * @return El tipo de este Pokemon.
-     */
-    public PokemonType getType() {
-        return PokemonType.fromClassName(this.getClass().getName());
-    }
-
-    /**
-     * Crea un nuevo Pokemon de una clase específica.
-     *
-     * @param className El nombre de la clase del Pokemon.
-     * @param name      El nombre del Pokemon.
-     * @param health    La salud del Pokemon.
-     * @param attack    El ataque del Pokemon.
-     * @param defense   La defensa del Pokemon.
-     * @param speed     La velocidad del Pokemon.
-     * @return El nuevo Pokemon creado.
-     * @throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException si ocurre algún error durante la creación del Pokemon.
-     */
-    public static Pokemon createForClassName(String className, String name, double health, double attack, double defense, double speed)
-            throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-        Class<?> pokemonClass = Class.forName(className);
-        return (Pokemon) pokemonClass.getConstructor(String.class, double.class, double.class, double.class, double.class).newInstance(name, health, attack, defense, speed);
-    }
-
-    /**
-     * Crea un clon de este Pokemon.
-     *
-     * @return El clon del Pokemon.
-     */
-    @Override
-    public Pokemon clone() {
-        try {
-           return  (Pokemon) super.clone();
-        } catch (CloneNotSupportedException e) {
-            throw new RuntimeException(e);
-        }
-    }
-}
+package models;
+
+import models.battle.BattleEngine;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Clase abstracta Pokemon que implementa la interfaz Comparable y Cloneable.
+ * Esta clase representa un Pokemon con atributos como nombre, salud, ataque, defensa y velocidad.
+ * El nombre y las estadísticas se guardan en una {@link PokemonSpecies} que comparten los Pokemon iguales.
+ * <p>
+ * Los Pokemon de las clases de cada tipo no cambian después de crearlos: los métodos {@code with*} devuelven otro
+ * Pokemon del mismo tipo con la estadística cambiada. Por eso su código hash se calcula una sola vez, y un mismo
+ * Pokemon se puede guardar en la tabla, en índices y en cachés o pasar a otros hilos sin copiarlo ni sincronizarlo.
+ * La excepción son las vistas {@link models.roster.RosterPokemon} de un roster por columnas, que leen del roster
+ * y cambian con él, y que pueden no tener tipo; para guardarlas o compartirlas hay que clonarlas antes.
+ */
+public abstract class Pokemon implements Comparable<Pokemon>, Cloneable {
+    private final PokemonSpecies species;
+    private final PokemonType type;
+
+    /**
+     * Código hash calculado la primera vez que se pide, o 0 si aún no se ha calculado. Como se calcula siempre
+     * a partir de campos finales, no importa que dos hilos lo calculen a la vez.
+     */
+    private int hash;
+
+    /**
+     * Constructor de la clase Pokemon.
+     *
+     * @param name    El nombre del Pokemon.
+     * @param health  La salud del Pokemon.
+     * @param attack  El ataque del Pokemon.
+     * @param defense La defensa del Pokemon.
+     * @param speed   La velocidad del Pokemon.
+     */
+    public Pokemon(String name, double health, double attack, double defense, double speed) {
+        this.species = PokemonSpecies.of(name, health, attack, defense, speed);
+        this.type = PokemonType.fromClass(getClass());
+    }
+
+    /**
+     * Método que compara este Pokemon con otro basándose en el resultado de un combate entre ambos.
+     * El combate lo resuelve {@link BattleEngine}.
+     *
+     * @param pokemon El Pokemon a comparar.
+     * @return 1 si gana este Pokemon, -1 si gana el otro o 0 si ninguno puede derrotar al otro.
+     */
+    @Override
+    public int compareTo(Pokemon pokemon) {
+        return BattleEngine.duel(this, pokemon);
+    }
+
+    /**
+     * Comprueba si un objeto es igual a este Pokemon.
+     * Para que dos Pokemon sean iguales, deben tener el mismo nombre, salud, ataque, defensa y velocidad.
+     *
+     * @param obj El objeto a comparar.
+     * @return true si los objetos son iguales, false de lo contrario.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Pokemon)) {
+            return false;
+        }
+
+        Pokemon pokemon = (Pokemon) obj;
+        if (hashCode() != pokemon.hashCode()) {
+            return false;
+        }
+
+        return getName().equals(pokemon.getName()) &&
+                getHealth() == pokemon.getHealth() &&
+                getAttack() == pokemon.getAttack() &&
+                getDefense() == pokemon.getDefense() &&
+                getSpeed() == pokemon.getSpeed() &&
+                getClass() == pokemon.getClass();
+    }
+
+    /**
+     * Devuelve el código hash de este Pokemon, que solo se calcula la primera vez.
+     *
+     * @return El código hash.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = computeHashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Calcula el código hash a partir del nombre, las estadísticas y la clase del Pokemon.
+     *
+     * @return El código hash.
+     */
+    protected final int computeHashCode() {
+        return getName().hashCode() +
+                Double.hashCode(getHealth()) +
+                Double.hashCode(getAttack()) +
+                Double.hashCode(getDefense()) +
+                Double.hashCode(getSpeed()) +
+                getClass().hashCode();
+    }
+
+    /**
+     * Método que obtiene el daño que este Pokemon hace en cada ataque antes de aplicar el multiplicador de tipo.
+     *
+     * @return El daño base.
+     */
+    public double getBaseDamage() {
+        return getAttack() / getDefense();
+    }
+
+    /**
+     * Método que obtiene el daño que este Pokemon puede hacer a otro Pokemon.
+     * El daño se ajusta con el multiplicador de {@link TypeEffectiveness} entre el tipo de este Pokemon
+     * y el del Pokemon al que se ataca.
+     *
+     * @param pokemonToAttack El Pokemon al que se ataca.
+     * @return El daño que se puede hacer.
+     */
+    public double getDamageAgainst(Pokemon pokemonToAttack) {
+        return getBaseDamage() * TypeEffectiveness.getDefault().getMultiplier(getType(), pokemonToAttack.getType());
+    }
+
+    /**
+     * Devuelve una cadena de caracteres que representa a este Pokemon.
+     *
+     * @return Una cadena de caracteres que representa a este Pokemon.
+     */
+    @Override
+    public String toString() {
+        PokemonType type = getType();
+        return String.format("%s (%s)", getName(), type == null ? "Unknown" : type.toString());
+    }
+
+    /**
+     * Devuelve el nombre de este Pokemon.
+     *
+     * @return El nombre de este Pokemon.
+     */
+    public String getName() {
+        return species.getName();
+    }
+
+    /**
+     * Devuelve un Pokemon como este, pero con otro nombre.
+     *
+     * @param name El nuevo nombre del Pokemon.
+     * @return Un nuevo Pokemon del mismo tipo.
+     */
+    public Pokemon withName(String name) {
+        return withSpecies(getSpecies().withName(name));
+    }
+
+    public double getHealth() {
+        return species.getHealth();
+    }
+
+    public Pokemon withHealth(double health) {
+        return withSpecies(getSpecies().withHealth(health));
+    }
+
+    public double getAttack() {
+        return species.getAttack();
+    }
+
+    public Pokemon withAttack(double attack) {
+        return withSpecies(getSpecies().withAttack(attack));
+    }
+
+    public double getDefense() {
+        return species.getDefense();
+    }
+
+    public Pokemon withDefense(double defense) {
+        return withSpecies(getSpecies().withDefense(defense));
+    }
+
+    public double getSpeed() {
+        return species.getSpeed();
+    }
+
+    public Pokemon withSpeed(double speed) {
+        return withSpecies(getSpecies().withSpeed(speed));
+    }
+
+    /**
+     * Crea un Pokemon de la misma clase que este con otro nombre y estadísticas.
+     * Las clases de un {@link PokemonType} se crean directamente; el resto, por reflexión.
+     *
+     * @param species La plantilla del nuevo Pokemon.
+     * @return El nuevo Pokemon.
+     */
+    protected Pokemon withSpecies(PokemonSpecies species) {
+        PokemonType type = getType();
+        if (type != null && type.getClassName().equals(getClass().getName())) {
+            return type.createPokemon(species.getName(), species.getHealth(), species.getAttack(),
+                    species.getDefense(), species.getSpeed());
+        }
+        try {
+            return createForClassName(getClass().getName(), species.getName(), species.getHealth(), species.getAttack(),
+                    species.getDefense(), species.getSpeed());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Devuelve la plantilla con el nombre y las estadísticas de este Pokemon, que pueden compartir otros Pokemon.
+     *
+     * @return La plantilla de este Pokemon.
+     */
+    public PokemonSpecies getSpecies() {
+        return species;
+    }
+
+    /**
+     * Devuelve el tipo de este Pokemon, resuelto una sola vez al crearlo.
+     *
+     * @return El tipo de este Pokemon.
+     */
+    public PokemonType getType() {
+        return type;
+    }
+
+    /**
+     * Crea un nuevo Pokemon de una clase específica.
+     * Si la clase corresponde a un {@link PokemonType}, se usa su constructor directamente;
+     * solo las clases desconocidas se crean por reflexión.
+     *
+     * @param className El nombre de la clase del Pokemon.
+     * @param name      El nombre del Pokemon.
+     * @param health    La salud del Pokemon.
+     * @param attack    El ataque del Pokemon.
+     * @param defense   La defensa del Pokemon.
+     * @param speed     La velocidad del Pokemon.
+     * @return El nuevo Pokemon creado.
+     * @throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException si ocurre algún error durante la creación del Pokemon.
+     */
+    public static Pokemon createForClassName(String className, String name, double health, double attack, double defense, double speed)
+            throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        PokemonType type = PokemonType.fromClassName(className);
+        if (type != null) {
+            return type.createPokemon(name, health, attack, defense, speed);
+        }
+        Class<?> pokemonClass = Class.forName(className);
+        return (Pokemon) pokemonClass.getConstructor(String.class, double.class, double.class, double.class, double.class).newInstance(name, health, attack, defense, speed);
+    }
+
+    /**
+     * Crea un clon de este Pokemon. Como los Pokemon no cambian, el clon solo hace falta cuando se necesita
+     * otro objeto, por ejemplo para añadir el mismo Pokemon dos veces a la tabla; comparte la plantilla de este.
+     *
+     * @return El clon del Pokemon.
+     */
+    @Override
+    public Pokemon clone() {
+        try {
+           return  (Pokemon) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clase PokemonChangeSet que representa los cambios pendientes de guardar de una lista de Pokemon.
+ * Cada Pokemon se identifica por su id estable: las filas insertadas o modificadas se guardan como upserts
+ * y las filas eliminadas como deletes. Si es un reemplazo completo, la tabla se vacía antes de aplicar los upserts.
+ */
+public class PokemonChangeSet {
+    private final Map<Long, Pokemon> upserts;
+    private final Set<Long> deletes;
+    private final boolean fullReplace;
+
+    /**
+     * Constructor de la clase PokemonChangeSet.
+     *
+     * @param upserts     Los Pokemon insertados o modificados, por id.
+     * @param deletes     Los ids de los Pokemon eliminados.
+     * @param fullReplace true si los upserts son el contenido completo y la tabla debe vaciarse antes.
+     */
+    public PokemonChangeSet(Map<Long, Pokemon> upserts, Set<Long> deletes, boolean fullReplace) {
+        this.upserts = Collections.unmodifiableMap(new LinkedHashMap<>(upserts));
+        this.deletes = Collections.unmodifiableSet(new LinkedHashSet<>(deletes));
+        this.fullReplace = fullReplace;
+    }
+
+    public Map<Long, Pokemon> getUpserts() {
+        return upserts;
+    }
+
+    public Set<Long> getDeletes() {
+        return deletes;
+    }
+
+    public boolean isFullReplace() {
+        return fullReplace;
+    }
+
+    /**
+     * Indica si no hay nada que guardar.
+     *
+     * @return true si no hay upserts, ni deletes, ni es un reemplazo completo.
+     */
+    public boolean isEmpty() {
+        return !fullReplace && upserts.isEmpty() && deletes.isEmpty();
+    }
+
+    /**
+     * Devuelve el número de operaciones de este conjunto de cambios.
+     *
+     * @return El número de upserts más el número de deletes.
+     */
+    public int size() {
+        return upserts.size() + deletes.size();
+    }
+}
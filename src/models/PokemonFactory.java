@@ -0,0 +1,22 @@
+package models;
+
+/**
+ * Interfaz funcional PokemonFactory que crea un Pokemon de un tipo concreto a partir de sus atributos.
+ * Cada {@link PokemonType} guarda una referencia al constructor de su clase, de forma que crear un Pokemon
+ * es una llamada directa, sin reflexión.
+ */
+@FunctionalInterface
+public interface PokemonFactory {
+
+    /**
+     * Crea un nuevo Pokemon.
+     *
+     * @param name    El nombre del Pokemon.
+     * @param health  La salud del Pokemon.
+     * @param attack  El ataque del Pokemon.
+     * @param defense La defensa del Pokemon.
+     * @param speed   La velocidad del Pokemon.
+     * @return El nuevo Pokemon creado.
+     */
+    Pokemon create(String name, double health, double attack, double defense, double speed);
+}
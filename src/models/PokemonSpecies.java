@@ -0,0 +1,164 @@
+package models;
+
+/**
+ * Clase PokemonSpecies que representa una plantilla inmutable con el nombre y las estadísticas de un Pokemon.
+ * Los Pokemon no guardan sus estadísticas, sino una referencia a su plantilla, así que los clones y los Pokemon
+ * con el mismo nombre y estadísticas comparten la misma plantilla en lugar de tener una copia cada uno.
+ * <p>
+ * Las plantillas se obtienen con {@link #of}, que devuelve una plantilla igual ya creada si la encuentra en una caché
+ * de tamaño fijo. La caché no garantiza que dos plantillas iguales sean siempre el mismo objeto, pero en los rosters
+ * en los que se repite una especie miles de veces casi todas la comparten, y no ocupa más memoria por mucho que crezca
+ * el roster. Los nombres se comparten igual, aunque las estadísticas sean distintas.
+ * <p>
+ * Las plantillas no cambian: los métodos {@code with*} devuelven otra plantilla, igual que los de {@link Pokemon}.
+ */
+public final class PokemonSpecies {
+
+    /**
+     * La caché de plantillas guarda 2^TEMPLATE_BITS plantillas y la de nombres 2^NAME_BITS nombres.
+     */
+    private static final int TEMPLATE_BITS = 14;
+    private static final int NAME_BITS = 12;
+
+    /**
+     * Cachés indexadas por el hash. Las plantillas y los textos son inmutables, así que se pueden leer y escribir
+     * desde varios hilos sin sincronizar: como mucho, un hilo no ve la plantilla que acaba de guardar otro y crea una igual.
+     */
+    private static final PokemonSpecies[] TEMPLATES = new PokemonSpecies[1 << TEMPLATE_BITS];
+    private static final String[] NAMES = new String[1 << NAME_BITS];
+
+    private final String name;
+    private final double health;
+    private final double attack;
+    private final double defense;
+    private final double speed;
+
+    private PokemonSpecies(String name, double health, double attack, double defense, double speed) {
+        this.name = name;
+        this.health = health;
+        this.attack = attack;
+        this.defense = defense;
+        this.speed = speed;
+    }
+
+    /**
+     * Obtiene una plantilla con el nombre y las estadísticas indicadas, compartiendo una ya creada si es posible.
+     *
+     * @param name    El nombre del Pokemon.
+     * @param health  La salud del Pokemon.
+     * @param attack  El ataque del Pokemon.
+     * @param defense La defensa del Pokemon.
+     * @param speed   La velocidad del Pokemon.
+     * @return La plantilla.
+     */
+    public static PokemonSpecies of(String name, double health, double attack, double defense, double speed) {
+        int slot = hash(name, health, attack, defense, speed) * 0x9E3779B9 >>> (Integer.SIZE - TEMPLATE_BITS);
+        PokemonSpecies template = TEMPLATES[slot];
+        if (template != null && template.matches(name, health, attack, defense, speed)) {
+            return template;
+        }
+        template = new PokemonSpecies(internName(name), health, attack, defense, speed);
+        TEMPLATES[slot] = template;
+        return template;
+    }
+
+    /**
+     * Devuelve un nombre igual ya guardado en la caché de nombres, o guarda este si no lo hay.
+     */
+    private static String internName(String name) {
+        if (name == null) {
+            return null;
+        }
+        int slot = name.hashCode() * 0x9E3779B9 >>> (Integer.SIZE - NAME_BITS);
+        String cached = NAMES[slot];
+        if (name.equals(cached)) {
+            return cached;
+        }
+        NAMES[slot] = name;
+        return name;
+    }
+
+    private static int hash(String name, double health, double attack, double defense, double speed) {
+        int h = name == null ? 0 : name.hashCode();
+        h = h * 31 + Double.hashCode(health);
+        h = h * 31 + Double.hashCode(attack);
+        h = h * 31 + Double.hashCode(defense);
+        return h * 31 + Double.hashCode(speed);
+    }
+
+    private boolean matches(String name, double health, double attack, double defense, double speed) {
+        return (this.name == null ? name == null : this.name.equals(name))
+                && Double.doubleToLongBits(this.health) == Double.doubleToLongBits(health)
+                && Double.doubleToLongBits(this.attack) == Double.doubleToLongBits(attack)
+                && Double.doubleToLongBits(this.defense) == Double.doubleToLongBits(defense)
+                && Double.doubleToLongBits(this.speed) == Double.doubleToLongBits(speed);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getHealth() {
+        return health;
+    }
+
+    public double getAttack() {
+        return attack;
+    }
+
+    public double getDefense() {
+        return defense;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public PokemonSpecies withName(String name) {
+        return of(name, health, attack, defense, speed);
+    }
+
+    public PokemonSpecies withHealth(double health) {
+        return of(name, health, attack, defense, speed);
+    }
+
+    public PokemonSpecies withAttack(double attack) {
+        return of(name, health, attack, defense, speed);
+    }
+
+    public PokemonSpecies withDefense(double defense) {
+        return of(name, health, attack, defense, speed);
+    }
+
+    public PokemonSpecies withSpeed(double speed) {
+        return of(name, health, attack, defense, speed);
+    }
+
+    /**
+     * Comprueba si un objeto es una plantilla con el mismo nombre y estadísticas.
+     *
+     * @param obj El objeto a comparar.
+     * @return true si las plantillas son iguales, false de lo contrario.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PokemonSpecies)) {
+            return false;
+        }
+        PokemonSpecies other = (PokemonSpecies) obj;
+        return matches(other.name, other.health, other.attack, other.defense, other.speed);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(name, health, attack, defense, speed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.1f/%.1f/%.1f/%.1f)", name, health, attack, defense, speed);
+    }
+}
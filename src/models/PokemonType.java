@@ -1,59 +1,97 @@
-package models;
-
-/**
- * Enumeración PokemonType, que representa los diferentes tipos de Pokemon en el juego.
- * Cada tipo de Pokemon está asociado con el nombre de la clase correspondiente y un nombre para mostrar.
- */
-public enum PokemonType {
-    NORMAL(NormalPokemon.class.getName(), "Normal"),
-    FIRE(FirePokemon.class.getName(), "Fire"),
-    WATER(WaterPokemon.class.getName(), "Water"),
-    GRASS(GrassPokemon.class.getName(), "Grass");
-
-    private final String className;
-    private final String displayName;
-
-    /**
-     * Constructor de la enumeración PokemonType.
-     *
-     * @param className    El nombre de la clase que representa este tipo de Pokemon.
-     * @param displayName  El nombre para mostrar de este tipo de Pokemon.
-     */
-    PokemonType(String className, String displayName) {
-        this.className = className;
-        this.displayName = displayName;
-    }
-
-    /**
-     * Obtiene el nombre de la clase que representa este tipo de Pokemon.
-     *
-     * @return el nombre de la clase.
-     */
-    public String getClassName() {
-        return className;
-    }
-
-    /**
-     * Obtiene el nombre para mostrar de este tipo de Pokemon.
-     *
-     * @return el nombre para mostrar.
-     */
-    public String getDisplayName() {
-        return displayName;
-    }
-
-    /**
-     * Devuelve el tipo de Pokemon asociado con el nombre de la clase dado.
-     *
-     * @param className El nombre de la clase.
-     * @return El tipo de Pokemon correspondiente, o null si no hay ningún tipo de Pokemon asociado con el nombre de la clase.
-     */
-    public static PokemonType fromClassName(String className) {
-        for (PokemonType type : values()) {
-            if (type.getClassName().equals(className)) {
-                return type;
-            }
-        }
-        return null;
-    }
+package models;
+
+/**
+ * Enumeración PokemonType, que representa los diferentes tipos de Pokemon en el juego.
+ * Cada tipo de Pokemon está asociado con el nombre de la clase correspondiente y un nombre para mostrar.
+ */
+public enum PokemonType {
+    NORMAL(NormalPokemon.class.getName(), "Normal", NormalPokemon::new),
+    FIRE(FirePokemon.class.getName(), "Fire", FirePokemon::new),
+    WATER(WaterPokemon.class.getName(), "Water", WaterPokemon::new),
+    GRASS(GrassPokemon.class.getName(), "Grass", GrassPokemon::new);
+
+    /**
+     * Tipo de cada clase de Pokemon, calculado una sola vez por clase.
+     */
+    private static final ClassValue<PokemonType> TYPES_BY_CLASS = new ClassValue<PokemonType>() {
+        @Override
+        protected PokemonType computeValue(Class<?> pokemonClass) {
+            return fromClassName(pokemonClass.getName());
+        }
+    };
+
+    private final String className;
+    private final String displayName;
+    private final PokemonFactory factory;
+
+    /**
+     * Constructor de la enumeración PokemonType.
+     *
+     * @param className    El nombre de la clase que representa este tipo de Pokemon.
+     * @param displayName  El nombre para mostrar de este tipo de Pokemon.
+     * @param factory      El constructor de la clase que representa este tipo de Pokemon.
+     */
+    PokemonType(String className, String displayName, PokemonFactory factory) {
+        this.className = className;
+        this.displayName = displayName;
+        this.factory = factory;
+    }
+
+    /**
+     * Obtiene el nombre de la clase que representa este tipo de Pokemon.
+     *
+     * @return el nombre de la clase.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Obtiene el nombre para mostrar de este tipo de Pokemon.
+     *
+     * @return el nombre para mostrar.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Crea un nuevo Pokemon de este tipo llamando directamente al constructor de su clase.
+     *
+     * @param name    El nombre del Pokemon.
+     * @param health  La salud del Pokemon.
+     * @param attack  El ataque del Pokemon.
+     * @param defense La defensa del Pokemon.
+     * @param speed   La velocidad del Pokemon.
+     * @return El nuevo Pokemon creado.
+     */
+    public Pokemon createPokemon(String name, double health, double attack, double defense, double speed) {
+        return factory.create(name, health, attack, defense, speed);
+    }
+
+    /**
+     * Devuelve el tipo de Pokemon asociado con el nombre de la clase dado.
+     *
+     * @param className El nombre de la clase.
+     * @return El tipo de Pokemon correspondiente, o null si no hay ningún tipo de Pokemon asociado con el nombre de la clase.
+     */
+    public static PokemonType fromClassName(String className) {
+        for (PokemonType type : values()) {
+            if (type.getClassName().equals(className)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve el tipo de Pokemon asociado con una clase. El resultado se calcula la primera vez
+     * y se guarda por clase, así que las siguientes llamadas no comparan nombres.
+     *
+     * @param pokemonClass La clase del Pokemon.
+     * @return El tipo de Pokemon correspondiente, o null si no hay ningún tipo de Pokemon asociado con la clase.
+     */
+    public static PokemonType fromClass(Class<? extends Pokemon> pokemonClass) {
+        return TYPES_BY_CLASS.get(pokemonClass);
+    }
 }
\ No newline at end of file
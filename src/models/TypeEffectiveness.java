@@ -0,0 +1,128 @@
+package models;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Clase TypeEffectiveness que guarda los multiplicadores de daño entre tipos de Pokemon en una matriz
+ * indexada por el ordinal de {@link PokemonType}: la fila es el tipo que ataca y la columna el que recibe el ataque.
+ * La matriz por defecto se lee del recurso {@value #DEFAULT_RESOURCE}, así que se pueden añadir o ajustar tipos
+ * sin tocar las subclases de Pokemon.
+ */
+public class TypeEffectiveness {
+
+    public static final String DEFAULT_RESOURCE = "type_effectiveness.txt";
+
+    private static volatile TypeEffectiveness defaultEffectiveness;
+
+    private final double[][] multipliers;
+
+    private TypeEffectiveness(double[][] multipliers) {
+        this.multipliers = multipliers;
+    }
+
+    /**
+     * Devuelve la tabla de multiplicadores por defecto, leyéndola del recurso la primera vez.
+     *
+     * @return La tabla por defecto.
+     * @throws IllegalStateException si el recurso no existe.
+     */
+    public static TypeEffectiveness getDefault() {
+        TypeEffectiveness effectiveness = defaultEffectiveness;
+        if (effectiveness == null) {
+            synchronized (TypeEffectiveness.class) {
+                effectiveness = defaultEffectiveness;
+                if (effectiveness == null) {
+                    effectiveness = loadDefault();
+                    defaultEffectiveness = effectiveness;
+                }
+            }
+        }
+        return effectiveness;
+    }
+
+    /**
+     * Sustituye la tabla de multiplicadores por defecto, por ejemplo por una leída de otro fichero.
+     *
+     * @param effectiveness La nueva tabla por defecto.
+     */
+    public static void setDefault(TypeEffectiveness effectiveness) {
+        defaultEffectiveness = effectiveness;
+    }
+
+    /**
+     * Lee una tabla de multiplicadores. La primera línea con contenido lista los tipos de las columnas; cada línea
+     * siguiente empieza por el tipo que ataca seguido de un multiplicador por columna. Las líneas que empiezan
+     * por # se ignoran y las combinaciones que no aparecen valen 1.
+     *
+     * @param reader El origen del texto de la tabla.
+     * @return La tabla leída.
+     * @throws IOException si ocurre algún error de lectura.
+     * @throws IllegalArgumentException si la tabla tiene un tipo desconocido o un número de columnas incorrecto.
+     */
+    public static TypeEffectiveness load(Reader reader) throws IOException {
+        int typeCount = PokemonType.values().length;
+        double[][] multipliers = new double[typeCount][typeCount];
+        for (double[] row : multipliers) {
+            Arrays.fill(row, 1);
+        }
+
+        BufferedReader lines = new BufferedReader(reader);
+        PokemonType[] columns = null;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            if (columns == null) {
+                columns = new PokemonType[tokens.length];
+                for (int i = 0; i < tokens.length; i++) {
+                    columns[i] = PokemonType.valueOf(tokens[i]);
+                }
+                continue;
+            }
+            if (tokens.length != columns.length + 1) {
+                throw new IllegalArgumentException("Expected " + columns.length + " multipliers in row: " + line);
+            }
+            PokemonType attacker = PokemonType.valueOf(tokens[0]);
+            for (int i = 0; i < columns.length; i++) {
+                multipliers[attacker.ordinal()][columns[i].ordinal()] = Double.parseDouble(tokens[i + 1]);
+            }
+        }
+        return new TypeEffectiveness(multipliers);
+    }
+
+    /**
+     * Obtiene el multiplicador de daño de un tipo contra otro.
+     *
+     * @param attacker El tipo del Pokemon que ataca.
+     * @param defender El tipo del Pokemon que recibe el ataque.
+     * @return El multiplicador, o 1 si alguno de los tipos es desconocido.
+     */
+    public double getMultiplier(PokemonType attacker, PokemonType defender) {
+        if (attacker == null || defender == null) {
+            return 1;
+        }
+        return multipliers[attacker.ordinal()][defender.ordinal()];
+    }
+
+    private static TypeEffectiveness loadDefault() {
+        InputStream stream = TypeEffectiveness.class.getResourceAsStream(DEFAULT_RESOURCE);
+        if (stream == null) {
+            throw new IllegalStateException("Missing type effectiveness resource: " + DEFAULT_RESOURCE);
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package models.battle;
+
+import models.Pokemon;
+
+/**
+ * Clase BattleEngine que resuelve los combates entre dos Pokemon.
+ * En cada turno ataca un Pokemon y le quita al otro el daño que le hace; empieza el más rápido
+ * (el primero si tienen la misma velocidad) y se van turnando hasta que uno se queda sin salud.
+ * Como el daño de cada Pokemon es el mismo en todos sus turnos, el número de ataques que necesita cada uno
+ * se calcula directamente, así que resolver un combate cuesta lo mismo sean cuales sean las estadísticas.
+ */
+public final class BattleEngine {
+
+    public static final int FIRST_WINS = 1;
+    public static final int SECOND_WINS = -1;
+    public static final int DRAW = 0;
+
+    /**
+     * Número de ataques que indica que un Pokemon nunca puede derrotar al otro.
+     */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private BattleEngine() {
+    }
+
+    /**
+     * Resuelve un combate entre dos Pokemon.
+     *
+     * @param first  El primer Pokemon, que ataca primero si empata en velocidad.
+     * @param second El segundo Pokemon.
+     * @return {@link #FIRST_WINS}, {@link #SECOND_WINS} o {@link #DRAW} si ninguno puede hacer daño al otro.
+     */
+    public static int duel(Pokemon first, Pokemon second) {
+        return duel(first.getHealth(), first.getDamageAgainst(second), first.getSpeed(),
+                second.getHealth(), second.getDamageAgainst(first), second.getSpeed());
+    }
+
+    /**
+     * Resuelve un combate a partir de las estadísticas ya calculadas de los dos Pokemon, sin crear ningún objeto.
+     *
+     * @param firstHealth  La salud del primer Pokemon.
+     * @param firstDamage  El daño que hace el primer Pokemon al segundo en cada ataque.
+     * @param firstSpeed   La velocidad del primer Pokemon.
+     * @param secondHealth La salud del segundo Pokemon.
+     * @param secondDamage El daño que hace el segundo Pokemon al primero en cada ataque.
+     * @param secondSpeed  La velocidad del segundo Pokemon.
+     * @return {@link #FIRST_WINS}, {@link #SECOND_WINS} o {@link #DRAW} si ninguno puede hacer daño al otro.
+     */
+    public static int duel(double firstHealth, double firstDamage, double firstSpeed,
+                           double secondHealth, double secondDamage, double secondSpeed) {
+        return outcome(attacksToKnockOut(secondHealth, firstDamage), attacksToKnockOut(firstHealth, secondDamage),
+                firstSpeed, secondSpeed);
+    }
+
+    /**
+     * Decide el resultado de un combate a partir de los ataques que necesita cada Pokemon para ganar.
+     *
+     * @param firstAttacks  Los ataques que necesita el primer Pokemon, o {@link #NEVER}.
+     * @param secondAttacks Los ataques que necesita el segundo Pokemon, o {@link #NEVER}.
+     * @param firstSpeed    La velocidad del primer Pokemon.
+     * @param secondSpeed   La velocidad del segundo Pokemon.
+     * @return {@link #FIRST_WINS}, {@link #SECOND_WINS} o {@link #DRAW} si ninguno puede hacer daño al otro.
+     */
+    public static int outcome(long firstAttacks, long secondAttacks, double firstSpeed, double secondSpeed) {
+        if (firstAttacks == NEVER && secondAttacks == NEVER) {
+            return DRAW;
+        }
+        if (firstSpeed >= secondSpeed) {
+            return firstAttacks <= secondAttacks ? FIRST_WINS : SECOND_WINS;
+        }
+        return secondAttacks <= firstAttacks ? SECOND_WINS : FIRST_WINS;
+    }
+
+    /**
+     * Calcula cuántos ataques hacen falta para dejar sin salud a un Pokemon.
+     *
+     * @param health La salud del Pokemon atacado.
+     * @param damage El daño de cada ataque.
+     * @return El número de ataques, al menos 1, o {@link #NEVER} si el daño no es positivo.
+     */
+    public static long attacksToKnockOut(double health, double damage) {
+        if (!(damage > 0)) {
+            return NEVER;
+        }
+        double attacks = Math.ceil(health / damage);
+        if (attacks >= NEVER) {
+            return NEVER;
+        }
+        return Math.max(1, (long) attacks);
+    }
+}
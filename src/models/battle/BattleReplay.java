@@ -0,0 +1,133 @@
+package models.battle;
+
+import models.Pokemon;
+
+/**
+ * Clase BattleReplay que permite reproducir turno a turno un combate resuelto por {@link BattleEngine}.
+ * Como el daño de cada Pokemon es el mismo en todos sus ataques, la salud después de cualquier turno
+ * se calcula directamente, sin guardar los turnos anteriores.
+ */
+public class BattleReplay {
+    private final Pokemon first;
+    private final Pokemon second;
+    private final boolean firstStarts;
+    private final double firstDamage;
+    private final double secondDamage;
+    private final long firstAttacks;
+    private final long secondAttacks;
+    private final int outcome;
+    private final long turnCount;
+
+    /**
+     * Constructor de la clase BattleReplay. Resuelve el combate entre los dos Pokemon.
+     *
+     * @param first  El primer Pokemon, que ataca primero si empata en velocidad.
+     * @param second El segundo Pokemon.
+     */
+    public BattleReplay(Pokemon first, Pokemon second) {
+        this.first = first;
+        this.second = second;
+        this.firstStarts = first.getSpeed() >= second.getSpeed();
+        this.firstDamage = first.getDamageAgainst(second);
+        this.secondDamage = second.getDamageAgainst(first);
+
+        this.firstAttacks = BattleEngine.attacksToKnockOut(second.getHealth(), firstDamage);
+        this.secondAttacks = BattleEngine.attacksToKnockOut(first.getHealth(), secondDamage);
+        this.outcome = BattleEngine.outcome(firstAttacks, secondAttacks, first.getSpeed(), second.getSpeed());
+        if (outcome == BattleEngine.FIRST_WINS) {
+            this.turnCount = firstStarts ? 2 * firstAttacks - 1 : 2 * firstAttacks;
+        } else if (outcome == BattleEngine.SECOND_WINS) {
+            this.turnCount = firstStarts ? 2 * secondAttacks : 2 * secondAttacks - 1;
+        } else {
+            this.turnCount = BattleEngine.NEVER;
+        }
+    }
+
+    public Pokemon getFirst() {
+        return first;
+    }
+
+    public Pokemon getSecond() {
+        return second;
+    }
+
+    /**
+     * Obtiene el resultado del combate.
+     *
+     * @return {@link BattleEngine#FIRST_WINS}, {@link BattleEngine#SECOND_WINS} o {@link BattleEngine#DRAW}.
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Obtiene el ganador del combate.
+     *
+     * @return El Pokemon ganador, o null si es un empate.
+     */
+    public Pokemon getWinner() {
+        if (outcome == BattleEngine.FIRST_WINS) {
+            return first;
+        }
+        return outcome == BattleEngine.SECOND_WINS ? second : null;
+    }
+
+    /**
+     * Obtiene el número de turnos del combate.
+     *
+     * @return Los turnos, o {@link BattleEngine#NEVER} si es un empate y el combate no termina.
+     */
+    public long getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Indica si en un turno ataca el primer Pokemon.
+     *
+     * @param turn El turno, empezando por 0.
+     * @return true si ataca el primero, false si ataca el segundo.
+     */
+    public boolean isFirstAttacking(long turn) {
+        return (turn % 2 == 0) == firstStarts;
+    }
+
+    /**
+     * Obtiene el daño que se hace en un turno.
+     *
+     * @param turn El turno, empezando por 0.
+     * @return El daño del Pokemon que ataca en ese turno.
+     */
+    public double getDamage(long turn) {
+        return isFirstAttacking(turn) ? firstDamage : secondDamage;
+    }
+
+    /**
+     * Obtiene la salud del primer Pokemon después de un turno.
+     *
+     * @param turn El turno, empezando por 0.
+     * @return La salud restante, nunca negativa.
+     */
+    public double getFirstHealthAfter(long turn) {
+        long attacks = firstStarts ? (turn + 1) / 2 : turn / 2 + 1;
+        return healthAfter(first.getHealth(), attacks, secondAttacks, secondDamage);
+    }
+
+    /**
+     * Obtiene la salud del segundo Pokemon después de un turno.
+     *
+     * @param turn El turno, empezando por 0.
+     * @return La salud restante, nunca negativa.
+     */
+    public double getSecondHealthAfter(long turn) {
+        long attacks = firstStarts ? turn / 2 + 1 : (turn + 1) / 2;
+        return healthAfter(second.getHealth(), attacks, firstAttacks, firstDamage);
+    }
+
+    // El número de ataques para dejarlo fuera de combate manda sobre la resta, que puede quedarse en un residuo de coma flotante
+    private static double healthAfter(double health, long attacks, long attacksToKnockOut, double damage) {
+        if (attacks >= attacksToKnockOut) {
+            return 0;
+        }
+        return Math.max(Double.MIN_VALUE, health - attacks * damage);
+    }
+}
@@ -0,0 +1,280 @@
+package models.battle;
+
+import models.Pokemon;
+import models.PokemonType;
+import models.TypeEffectiveness;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Clase DuelCache que guarda el resultado de combates ya calculados, indexado por el tipo y las estadísticas
+ * de los dos Pokemon y no por los objetos, así que los clones y los Pokemon repetidos comparten resultado.
+ * <p>
+ * La caché tiene un tamaño máximo y, cuando se llena, descarta el combate que hace más tiempo que no se consulta.
+ * Se divide en segmentos con su propio cerrojo para que varios hilos puedan consultarla a la vez; cada segmento es
+ * un LinkedHashMap en orden de acceso. El valor se calcula fuera del cerrojo, así que un cálculo lento no bloquea
+ * al resto de hilos, aunque dos hilos que piden a la vez el mismo combate pueden llegar a calcularlo los dos.
+ * <p>
+ * Como las estadísticas forman parte de la clave, editar un Pokemon nunca devuelve un resultado incorrecto, pero
+ * {@link #invalidate(Pokemon)} libera los combates de las estadísticas antiguas. Si cambia la tabla de eficacias
+ * por defecto, la caché se vacía sola en la siguiente consulta.
+ *
+ * @param <V> El tipo del resultado que se guarda.
+ */
+public class DuelCache<V> {
+
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    private final Segment<V>[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile TypeEffectiveness effectiveness = TypeEffectiveness.getDefault();
+
+    /**
+     * Constructor de la clase DuelCache.
+     *
+     * @param capacity El número máximo de combates que se guardan.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public DuelCache(int capacity) {
+        if (capacity < SEGMENTS) {
+            throw new IllegalArgumentException("Capacity must be at least " + SEGMENTS + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(capacity / SEGMENTS + (i < capacity % SEGMENTS ? 1 : 0), evictions);
+        }
+    }
+
+    /**
+     * Obtiene el resultado de un combate, calculándolo y guardándolo si no está en la caché.
+     *
+     * @param first   El primer Pokemon.
+     * @param second  El segundo Pokemon.
+     * @param compute La función que calcula el resultado si no está guardado. No puede devolver null.
+     * @return El resultado del combate.
+     */
+    public V get(Pokemon first, Pokemon second, BiFunction<? super Pokemon, ? super Pokemon, ? extends V> compute) {
+        checkEffectiveness();
+        Key key = new Key(first, second);
+        Segment<V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = compute.apply(first, second);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Quita de la caché todos los combates en los que uno de los dos Pokemon tiene el tipo y las estadísticas
+     * que tiene ahora el Pokemon indicado. Se llama antes de cambiar o sustituir un Pokemon editado.
+     *
+     * @param pokemon El Pokemon.
+     */
+    public void invalidate(Pokemon pokemon) {
+        int type = typeOrdinal(pokemon);
+        double health = pokemon.getHealth();
+        double attack = pokemon.getAttack();
+        double defense = pokemon.getDefense();
+        double speed = pokemon.getSpeed();
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                Iterator<Key> keys = segment.keySet().iterator();
+                while (keys.hasNext()) {
+                    Key key = keys.next();
+                    if (key.firstMatches(type, health, attack, defense, speed)
+                            || key.secondMatches(type, health, attack, defense, speed)) {
+                        keys.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Vacía la caché. Los contadores no se reinician.
+     */
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de combates guardados.
+     *
+     * @return El número de combates.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d duels cached, %d hits, %d misses, %d evictions",
+                size(), capacity, getHits(), getMisses(), getEvictions());
+    }
+
+    /**
+     * Vacía la caché si ha cambiado la tabla de eficacias por defecto, porque los resultados dependen de ella.
+     */
+    private void checkEffectiveness() {
+        TypeEffectiveness current = TypeEffectiveness.getDefault();
+        if (current != effectiveness) {
+            effectiveness = current;
+            clear();
+        }
+    }
+
+    /**
+     * Obtiene el ordinal del tipo de un Pokemon, o -1 si no tiene tipo, como las vistas de entradas sin tipo conocido.
+     */
+    private static int typeOrdinal(Pokemon pokemon) {
+        PokemonType type = pokemon.getType();
+        return type == null ? -1 : type.ordinal();
+    }
+
+    private Segment<V> segmentFor(Key key) {
+        return segments[key.hash >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    /**
+     * Segmento de la caché: un LinkedHashMap en orden de acceso que descarta el combate más antiguo al llenarse.
+     */
+    private static class Segment<V> extends LinkedHashMap<Key, V> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Clave de un combate: el tipo y las estadísticas de los dos Pokemon, en orden. El nombre no influye en el combate,
+     * así que no forma parte de la clave.
+     */
+    private static final class Key {
+        private final int firstType;
+        private final double firstHealth;
+        private final double firstAttack;
+        private final double firstDefense;
+        private final double firstSpeed;
+        private final int secondType;
+        private final double secondHealth;
+        private final double secondAttack;
+        private final double secondDefense;
+        private final double secondSpeed;
+        private final int hash;
+
+        Key(Pokemon first, Pokemon second) {
+            this.firstType = typeOrdinal(first);
+            this.firstHealth = first.getHealth();
+            this.firstAttack = first.getAttack();
+            this.firstDefense = first.getDefense();
+            this.firstSpeed = first.getSpeed();
+            this.secondType = typeOrdinal(second);
+            this.secondHealth = second.getHealth();
+            this.secondAttack = second.getAttack();
+            this.secondDefense = second.getDefense();
+            this.secondSpeed = second.getSpeed();
+            int h = firstType;
+            h = h * 31 + Double.hashCode(firstHealth);
+            h = h * 31 + Double.hashCode(firstAttack);
+            h = h * 31 + Double.hashCode(firstDefense);
+            h = h * 31 + Double.hashCode(firstSpeed);
+            h = h * 31 + secondType;
+            h = h * 31 + Double.hashCode(secondHealth);
+            h = h * 31 + Double.hashCode(secondAttack);
+            h = h * 31 + Double.hashCode(secondDefense);
+            h = h * 31 + Double.hashCode(secondSpeed);
+            // Se mezclan los bits para que los bits altos, que eligen el segmento, dependan de todas las estadísticas
+            this.hash = h * 0x9E3779B9;
+        }
+
+        boolean firstMatches(int type, double health, double attack, double defense, double speed) {
+            return firstType == type && same(firstHealth, health) && same(firstAttack, attack)
+                    && same(firstDefense, defense) && same(firstSpeed, speed);
+        }
+
+        boolean secondMatches(int type, double health, double attack, double defense, double speed) {
+            return secondType == type && same(secondHealth, health) && same(secondAttack, attack)
+                    && same(secondDefense, defense) && same(secondSpeed, speed);
+        }
+
+        private static boolean same(double a, double b) {
+            return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && firstMatches(other.firstType, other.firstHealth, other.firstAttack, other.firstDefense, other.firstSpeed)
+                    && secondMatches(other.secondType, other.secondHealth, other.secondAttack, other.secondDefense, other.secondSpeed);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
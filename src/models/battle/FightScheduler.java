@@ -0,0 +1,90 @@
+package models.battle;
+
+import models.Pokemon;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase FightScheduler que resuelve combates en hilos propios, opcionalmente después de un retardo,
+ * para que quien los pide no se quede bloqueado esperando. Se pueden encolar tantos combates como se quiera.
+ */
+public class FightScheduler {
+
+    private static final FightScheduler DEFAULT = new FightScheduler(Runtime.getRuntime().availableProcessors());
+
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger pendingFights = new AtomicInteger();
+
+    /**
+     * Constructor de la clase FightScheduler.
+     *
+     * @param threads El número de hilos que resuelven combates. Son hilos daemon, así que no impiden cerrar la aplicación.
+     */
+    public FightScheduler(int threads) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "fight-scheduler-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Devuelve el planificador compartido por la aplicación.
+     *
+     * @return El planificador por defecto.
+     */
+    public static FightScheduler getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Encola un combate que se resolverá después del retardo indicado.
+     *
+     * @param first       El primer Pokemon.
+     * @param second      El segundo Pokemon.
+     * @param delayMillis El retardo antes de resolver el combate, en milisegundos.
+     * @return Un futuro que se completa con la repetición del combate, en un hilo del planificador.
+     */
+    public CompletableFuture<BattleReplay> schedule(final Pokemon first, final Pokemon second, long delayMillis) {
+        final CompletableFuture<BattleReplay> future = new CompletableFuture<>();
+        pendingFights.incrementAndGet();
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    future.complete(new BattleReplay(first, second));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    pendingFights.decrementAndGet();
+                }
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * Obtiene el número de combates encolados que aún no se han resuelto.
+     *
+     * @return Los combates pendientes.
+     */
+    public int getPendingFights() {
+        return pendingFights.get();
+    }
+
+    /**
+     * Detiene el planificador. Los combates pendientes no se resuelven.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
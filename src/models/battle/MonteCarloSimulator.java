@@ -0,0 +1,366 @@
+package models.battle;
+
+import models.Pokemon;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Clase MonteCarloSimulator que estima la probabilidad de victoria de un combate cuando el daño no es fijo.
+ * A diferencia de {@link BattleEngine}, cada ataque hace un daño aleatorio entre {@link #DEFAULT_MIN_DAMAGE_ROLL}
+ * y 1 veces el daño del Pokemon, con una probabilidad de golpe crítico que lo multiplica, y si los dos Pokemon
+ * tienen la misma velocidad se sortea quién ataca primero.
+ * <p>
+ * Los combates se simulan por rondas de un número fijo de trozos, repartidos entre los núcleos con fork/join. Cada trozo
+ * tiene su propio {@link SplittableRandom}, separado del generador principal antes de empezar la ronda, así que los hilos
+ * no comparten nada, y como el tamaño de las rondas no depende del pool, el resultado es el mismo para la misma semilla
+ * en cualquier máquina y con cualquier número de hilos. Después de cada ronda se calcula el intervalo de confianza
+ * de Wilson al 95% de la tasa de victorias del primer Pokemon, y la simulación se detiene en cuanto su semiamplitud
+ * es menor que la pedida.
+ * <p>
+ * Los combates no tienen límite de turnos: si solo uno de los dos puede derrotar al otro gana siempre, y si los dos
+ * pueden, el combate se simula hasta el final. Cuando los dos necesitan más de {@link #LONG_DUEL_HITS} golpes, en lugar
+ * de simular cada golpe se sortea cuántos necesita cada uno con la aproximación normal de la suma de los daños,
+ * y gana el que termina antes.
+ */
+public class MonteCarloSimulator {
+
+    public static final double DEFAULT_MIN_DAMAGE_ROLL = 0.85;
+    public static final double DEFAULT_CRITICAL_CHANCE = 1.0 / 16;
+    public static final double DEFAULT_CRITICAL_MULTIPLIER = 1.5;
+    public static final double ESTIMATE_HALF_WIDTH = 0.005;
+    public static final long ESTIMATE_MAX_SIMULATIONS = 2_000_000;
+
+    /**
+     * Valor z del intervalo de confianza al 95%.
+     */
+    static final double Z_95 = 1.959963984540054;
+
+    /**
+     * Golpes medios necesarios para derrotar al rival a partir de los cuales no se simula golpe a golpe.
+     */
+    static final double LONG_DUEL_HITS = 1_000;
+
+    private static final int SIMULATIONS_PER_CHUNK = 4_096;
+    private static final int CHUNKS_PER_ROUND = 32;
+    private static final int CHUNKS_PER_TASK = 1;
+    private static final long MIN_SIMULATIONS = 1_000;
+
+    /**
+     * Estimaciones ya calculadas por {@link #estimate(Pokemon, Pokemon)}, compartidas por la aplicación.
+     */
+    private static final DuelCache<SimulationResult> ESTIMATES = new DuelCache<>(1024);
+
+    private final double minDamageRoll;
+    private final double criticalChance;
+    private final double criticalMultiplier;
+    private final ForkJoinPool pool;
+
+    /**
+     * Media y desviación típica del multiplicador de daño de un golpe, contando la tirada y los críticos.
+     */
+    private final double meanRoll;
+    private final double rollDeviation;
+
+    /**
+     * Constructor con los valores por defecto, que usa el pool común de fork/join.
+     */
+    public MonteCarloSimulator() {
+        this(DEFAULT_MIN_DAMAGE_ROLL, DEFAULT_CRITICAL_CHANCE, DEFAULT_CRITICAL_MULTIPLIER, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor de la clase MonteCarloSimulator.
+     *
+     * @param minDamageRoll      La fracción mínima del daño que hace un ataque, entre 0 y 1.
+     * @param criticalChance     La probabilidad de que un ataque sea un golpe crítico, entre 0 y 1.
+     * @param criticalMultiplier El multiplicador del daño de un golpe crítico.
+     * @param pool               El pool en el que se simulan los combates.
+     */
+    public MonteCarloSimulator(double minDamageRoll, double criticalChance, double criticalMultiplier, ForkJoinPool pool) {
+        if (!(minDamageRoll >= 0 && minDamageRoll <= 1)) {
+            throw new IllegalArgumentException("Minimum damage roll must be between 0 and 1: " + minDamageRoll);
+        }
+        if (!(criticalChance >= 0 && criticalChance <= 1)) {
+            throw new IllegalArgumentException("Critical chance must be between 0 and 1: " + criticalChance);
+        }
+        if (!(criticalMultiplier > 0)) {
+            throw new IllegalArgumentException("Critical multiplier must be positive: " + criticalMultiplier);
+        }
+        this.minDamageRoll = minDamageRoll;
+        this.criticalChance = criticalChance;
+        this.criticalMultiplier = criticalMultiplier;
+        this.pool = pool;
+        double uniformMean = (1 + minDamageRoll) / 2;
+        double uniformSquare = (1 + minDamageRoll + minDamageRoll * minDamageRoll) / 3;
+        this.meanRoll = uniformMean * (1 - criticalChance + criticalChance * criticalMultiplier);
+        double meanSquare = uniformSquare * (1 - criticalChance + criticalChance * criticalMultiplier * criticalMultiplier);
+        this.rollDeviation = Math.sqrt(Math.max(0, meanSquare - meanRoll * meanRoll));
+    }
+
+    /**
+     * Estima la probabilidad de victoria de un combate con los valores por defecto, simulando hasta que
+     * el intervalo de confianza mide ±{@link #ESTIMATE_HALF_WIDTH}. El resultado se guarda en una caché compartida
+     * por el tipo y las estadísticas de los dos Pokemon, así que repetir el combate, o pelear con un clon,
+     * no vuelve a simularlo. La caché solo guarda los números: el resultado devuelto lleva siempre los Pokemon
+     * recibidos, y la caché no mantiene vivos los Pokemon que la llenaron.
+     *
+     * @param first  El primer Pokemon.
+     * @param second El segundo Pokemon.
+     * @return El resultado de la simulación, quizá calculado antes.
+     */
+    public static SimulationResult estimate(Pokemon first, Pokemon second) {
+        return ESTIMATES.get(first, second, (a, b) -> new MonteCarloSimulator()
+                        .simulate(a, b, ESTIMATE_HALF_WIDTH, ESTIMATE_MAX_SIMULATIONS, System.nanoTime())
+                        .withPokemons(null, null))
+                .withPokemons(first, second);
+    }
+
+    /**
+     * Obtiene la caché de las estimaciones de {@link #estimate(Pokemon, Pokemon)}, para invalidarla o consultar sus contadores.
+     * Los resultados guardados no tienen Pokemon; para leerlos se debe usar {@link #estimate(Pokemon, Pokemon)}.
+     *
+     * @return La caché compartida.
+     */
+    public static DuelCache<SimulationResult> getEstimateCache() {
+        return ESTIMATES;
+    }
+
+    /**
+     * Simula combates entre dos Pokemon hasta que el intervalo de confianza de la tasa de victorias del primero
+     * tiene una semiamplitud menor o igual que la pedida, o hasta llegar al máximo de simulaciones.
+     *
+     * @param first          El primer Pokemon.
+     * @param second         El segundo Pokemon.
+     * @param halfWidth      La semiamplitud del intervalo a la que se detiene la simulación, por ejemplo 0.001 para ±0,1%.
+     * @param maxSimulations El número máximo de combates a simular.
+     * @param seed           La semilla del generador aleatorio.
+     * @return El resultado de la simulación.
+     */
+    public SimulationResult simulate(Pokemon first, Pokemon second, double halfWidth, long maxSimulations, long seed) {
+        long start = System.nanoTime();
+        Duel duel = new Duel(first.getHealth(), first.getDamageAgainst(second), first.getSpeed(),
+                second.getHealth(), second.getDamageAgainst(first), second.getSpeed());
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long firstWins = 0;
+        long secondWins = 0;
+        long simulations = 0;
+        boolean converged = false;
+        while (simulations < maxSimulations) {
+            long remaining = maxSimulations - simulations;
+            int chunks = (int) Math.min(CHUNKS_PER_ROUND, (remaining + SIMULATIONS_PER_CHUNK - 1) / SIMULATIONS_PER_CHUNK);
+            Round round = new Round(duel, chunks, remaining);
+            for (int i = 0; i < chunks; i++) {
+                round.randoms[i] = random.split();
+            }
+            pool.invoke(round.new ChunkRange(0, chunks));
+            for (int i = 0; i < chunks; i++) {
+                firstWins += round.firstWins[i];
+                secondWins += round.secondWins[i];
+                simulations += round.simulations[i];
+            }
+            if (simulations >= MIN_SIMULATIONS && wilsonHalfWidth(firstWins, simulations) <= halfWidth) {
+                converged = true;
+                break;
+            }
+        }
+        return new SimulationResult(first, second, firstWins, secondWins, simulations, converged,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Calcula la semiamplitud del intervalo de confianza de Wilson al 95% de una proporción.
+     *
+     * @param successes Los éxitos.
+     * @param trials    Los intentos.
+     * @return La semiamplitud del intervalo.
+     */
+    static double wilsonHalfWidth(long successes, long trials) {
+        double p = (double) successes / trials;
+        double z2 = Z_95 * Z_95;
+        return Z_95 * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials)) / (1 + z2 / trials);
+    }
+
+    /**
+     * Simula un combate. Los Pokemon atacan por turnos, empezando el más rápido; el daño de cada ataque se multiplica
+     * por una tirada aleatoria y, con cierta probabilidad, por el multiplicador de golpe crítico.
+     *
+     * @return {@link BattleEngine#FIRST_WINS}, {@link BattleEngine#SECOND_WINS} o {@link BattleEngine#DRAW}.
+     */
+    private int simulateDuel(Duel duel, SplittableRandom random) {
+        if (!duel.firstCanWin || !duel.secondCanWin) {
+            if (duel.firstCanWin) {
+                return BattleEngine.FIRST_WINS;
+            }
+            return duel.secondCanWin ? BattleEngine.SECOND_WINS : BattleEngine.DRAW;
+        }
+        boolean firstAttacks = duel.firstSpeed > duel.secondSpeed
+                || (duel.firstSpeed == duel.secondSpeed && random.nextBoolean());
+        if (duel.isLong(meanRoll)) {
+            double firstHits = sampleHitsToWin(duel.secondHealth, duel.firstDamage, random);
+            double secondHits = sampleHitsToWin(duel.firstHealth, duel.secondDamage, random);
+            // El que ataca primero da su golpe n antes que el golpe n del otro
+            if (firstAttacks) {
+                return firstHits <= secondHits ? BattleEngine.FIRST_WINS : BattleEngine.SECOND_WINS;
+            }
+            return secondHits <= firstHits ? BattleEngine.SECOND_WINS : BattleEngine.FIRST_WINS;
+        }
+        // Los dos pueden ganar, así que alguno acaba derrotando al otro
+        double firstHealth = duel.firstHealth;
+        double secondHealth = duel.secondHealth;
+        while (true) {
+            if (firstAttacks) {
+                secondHealth -= rollDamage(duel.firstDamage, random);
+                if (secondHealth <= 0) {
+                    return BattleEngine.FIRST_WINS;
+                }
+            } else {
+                firstHealth -= rollDamage(duel.secondDamage, random);
+                if (firstHealth <= 0) {
+                    return BattleEngine.SECOND_WINS;
+                }
+            }
+            firstAttacks = !firstAttacks;
+        }
+    }
+
+    /**
+     * Sortea cuántos golpes necesita un Pokemon para derrotar a otro, con la aproximación normal de la suma de sus
+     * daños: después de n golpes el daño total es aproximadamente normal con media nμ y varianza nσ², así que se
+     * busca el n para el que ese daño, con una desviación z sorteada, llega a la salud del rival.
+     *
+     * @param health La salud del rival.
+     * @param damage El daño del Pokemon antes de la tirada.
+     * @return El número de golpes, al menos 1.
+     */
+    private double sampleHitsToWin(double health, double damage, SplittableRandom random) {
+        double mean = damage * meanRoll;
+        double deviation = damage * rollDeviation * nextGaussian(random);
+        double rootHits = (-deviation + Math.sqrt(deviation * deviation + 4 * mean * health)) / (2 * mean);
+        return Math.max(1, Math.ceil(rootHits * rootHits));
+    }
+
+    /**
+     * Obtiene un valor de una normal estándar con el método polar de Marsaglia, porque SplittableRandom no lo tiene.
+     */
+    private static double nextGaussian(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    private double rollDamage(double damage, SplittableRandom random) {
+        double roll = minDamageRoll + (1 - minDamageRoll) * random.nextDouble();
+        if (random.nextDouble() < criticalChance) {
+            roll *= criticalMultiplier;
+        }
+        return damage * roll;
+    }
+
+    /**
+     * Estadísticas de un combate, calculadas una vez antes de simularlo.
+     */
+    private static class Duel {
+        private final double firstHealth;
+        private final double firstDamage;
+        private final double firstSpeed;
+        private final double secondHealth;
+        private final double secondDamage;
+        private final double secondSpeed;
+        private final boolean firstCanWin;
+        private final boolean secondCanWin;
+
+        Duel(double firstHealth, double firstDamage, double firstSpeed,
+             double secondHealth, double secondDamage, double secondSpeed) {
+            this.firstHealth = firstHealth;
+            this.firstDamage = firstDamage;
+            this.firstSpeed = firstSpeed;
+            this.secondHealth = secondHealth;
+            this.secondDamage = secondDamage;
+            this.secondSpeed = secondSpeed;
+            // Sin daño, o contra una salud infinita o NaN, un Pokemon no puede ganar nunca
+            this.firstCanWin = firstDamage > 0 && secondHealth < Double.POSITIVE_INFINITY;
+            this.secondCanWin = secondDamage > 0 && firstHealth < Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Indica si los dos Pokemon necesitan de media más de {@link #LONG_DUEL_HITS} golpes para ganar.
+         */
+        boolean isLong(double meanRoll) {
+            return secondHealth / (firstDamage * meanRoll) > LONG_DUEL_HITS
+                    && firstHealth / (secondDamage * meanRoll) > LONG_DUEL_HITS;
+        }
+    }
+
+    /**
+     * Ronda de simulaciones. Cada trozo tiene su generador y sus contadores, así que las tareas no comparten nada.
+     */
+    private class Round {
+        private final Duel duel;
+        private final long remaining;
+        private final SplittableRandom[] randoms;
+        private final long[] firstWins;
+        private final long[] secondWins;
+        private final long[] simulations;
+
+        Round(Duel duel, int chunks, long remaining) {
+            this.duel = duel;
+            this.remaining = remaining;
+            this.randoms = new SplittableRandom[chunks];
+            this.firstWins = new long[chunks];
+            this.secondWins = new long[chunks];
+            this.simulations = new long[chunks];
+        }
+
+        private void runChunk(int chunk) {
+            long count = Math.min(SIMULATIONS_PER_CHUNK, remaining - (long) chunk * SIMULATIONS_PER_CHUNK);
+            SplittableRandom random = randoms[chunk];
+            long chunkFirstWins = 0;
+            long chunkSecondWins = 0;
+            for (long i = 0; i < count; i++) {
+                int outcome = simulateDuel(duel, random);
+                if (outcome == BattleEngine.FIRST_WINS) {
+                    chunkFirstWins++;
+                } else if (outcome == BattleEngine.SECOND_WINS) {
+                    chunkSecondWins++;
+                }
+            }
+            firstWins[chunk] = chunkFirstWins;
+            secondWins[chunk] = chunkSecondWins;
+            simulations[chunk] = count;
+        }
+
+        /**
+         * Tarea que simula un rango de trozos, dividiéndolo en dos mientras tenga más de uno.
+         */
+        private class ChunkRange extends RecursiveAction {
+            private final int from;
+            private final int to;
+
+            ChunkRange(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= CHUNKS_PER_TASK) {
+                    for (int chunk = from; chunk < to; chunk++) {
+                        runChunk(chunk);
+                    }
+                } else {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new ChunkRange(from, middle), new ChunkRange(middle, to));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package models.battle;
+
+import models.Pokemon;
+
+/**
+ * Clase SimulationResult que contiene el resultado de una simulación de {@link MonteCarloSimulator}:
+ * cuántos combates ha ganado cada Pokemon, el intervalo de confianza al 95% de la tasa de victorias del primero
+ * y el rendimiento de la simulación.
+ */
+public class SimulationResult {
+
+    private final Pokemon first;
+    private final Pokemon second;
+    private final long firstWins;
+    private final long secondWins;
+    private final long simulations;
+    private final boolean converged;
+    private final long elapsedNanos;
+
+    SimulationResult(Pokemon first, Pokemon second, long firstWins, long secondWins, long simulations,
+                     boolean converged, long elapsedNanos) {
+        this.first = first;
+        this.second = second;
+        this.firstWins = firstWins;
+        this.secondWins = secondWins;
+        this.simulations = simulations;
+        this.converged = converged;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Devuelve una copia del resultado con otros Pokemon, que deben tener el mismo tipo y estadísticas.
+     * Las estimaciones guardadas en caché no conservan los Pokemon, que se vuelven a poner al leerlas.
+     */
+    SimulationResult withPokemons(Pokemon first, Pokemon second) {
+        return new SimulationResult(first, second, firstWins, secondWins, simulations, converged, elapsedNanos);
+    }
+
+    public Pokemon getFirst() {
+        return first;
+    }
+
+    public Pokemon getSecond() {
+        return second;
+    }
+
+    public long getFirstWins() {
+        return firstWins;
+    }
+
+    public long getSecondWins() {
+        return secondWins;
+    }
+
+    public long getDraws() {
+        return simulations - firstWins - secondWins;
+    }
+
+    public long getSimulations() {
+        return simulations;
+    }
+
+    /**
+     * Indica si la simulación se detuvo porque el intervalo de confianza ya era lo bastante estrecho,
+     * y no por llegar al máximo de simulaciones.
+     *
+     * @return true si se alcanzó la precisión pedida.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Obtiene la fracción de los combates que ha ganado el primer Pokemon.
+     *
+     * @return La tasa de victorias, entre 0 y 1.
+     */
+    public double getFirstWinRate() {
+        return simulations == 0 ? 0 : (double) firstWins / simulations;
+    }
+
+    /**
+     * Obtiene la fracción de los combates que ha ganado el segundo Pokemon.
+     *
+     * @return La tasa de victorias, entre 0 y 1.
+     */
+    public double getSecondWinRate() {
+        return simulations == 0 ? 0 : (double) secondWins / simulations;
+    }
+
+    /**
+     * Obtiene la semiamplitud del intervalo de confianza de Wilson al 95% de la tasa de victorias del primer Pokemon.
+     * El intervalo está centrado en {@link #getFirstWinRateCenter()}, que no es exactamente la tasa observada.
+     *
+     * @return La semiamplitud, entre 0 y 1.
+     */
+    public double getFirstWinRateHalfWidth() {
+        return simulations == 0 ? 0.5 : MonteCarloSimulator.wilsonHalfWidth(firstWins, simulations);
+    }
+
+    /**
+     * Obtiene el centro del intervalo de confianza de Wilson al 95% de la tasa de victorias del primer Pokemon.
+     *
+     * @return El centro del intervalo, entre 0 y 1.
+     */
+    public double getFirstWinRateCenter() {
+        if (simulations == 0) {
+            return 0.5;
+        }
+        double z2 = MonteCarloSimulator.Z_95 * MonteCarloSimulator.Z_95;
+        return (getFirstWinRate() + z2 / (2.0 * simulations)) / (1 + z2 / simulations);
+    }
+
+    public double getFirstWinRateLower() {
+        return Math.max(0, getFirstWinRateCenter() - getFirstWinRateHalfWidth());
+    }
+
+    public double getFirstWinRateUpper() {
+        return Math.min(1, getFirstWinRateCenter() + getFirstWinRateHalfWidth());
+    }
+
+    /**
+     * Obtiene el número de combates simulados por segundo.
+     *
+     * @return Los combates por segundo.
+     */
+    public double getSimulationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : simulations * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s wins %.2f%% (95%% CI %.2f%%-%.2f%%), %s wins %.2f%%, %d draws; "
+                        + "%d simulations in %.1f ms (%.0f simulations/s)%s",
+                first.getName(), getFirstWinRate() * 100, getFirstWinRateLower() * 100, getFirstWinRateUpper() * 100,
+                second.getName(), getSecondWinRate() * 100, getDraws(),
+                simulations, elapsedNanos / 1_000_000.0, getSimulationsPerSecond(), converged ? "" : ", not converged");
+    }
+}
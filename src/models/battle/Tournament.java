@@ -0,0 +1,236 @@
+package models.battle;
+
+import models.Pokemon;
+import models.PokemonType;
+import models.TypeEffectiveness;
+import models.roster.ColumnarRoster;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Clase Tournament que enfrenta a todos los Pokemon de una lista contra todos los demás, dos veces por pareja
+ * (una empezando cada uno), repartiendo el trabajo entre los núcleos con fork/join.
+ * Las estadísticas se copian al crear el torneo en arrays de primitivos, y cada tarea calcula filas completas
+ * de la matriz de resultados, así que las tareas no comparten nada que escribir.
+ */
+public class Tournament {
+
+    private static final int ROWS_PER_TASK = 8;
+
+    private final IntFunction<Pokemon> pokemonAt;
+    private final int size;
+    private final double[] health;
+    private final double[] baseDamage;
+    private final double[] speed;
+    private final int[] types;
+    private final double[][] multipliers;
+    private final boolean recordMatrix;
+
+    private final int[] wins;
+    private final int[] draws;
+    private final int[] losses;
+    private final long[][] winMatrix;
+    private final AtomicInteger completedRows = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor de la clase Tournament.
+     *
+     * @param roster       Los Pokemon que participan. La lista se copia, así que se puede modificar después.
+     * @param recordMatrix true para guardar la matriz de victorias, que ocupa un bit por combate.
+     */
+    public Tournament(List<Pokemon> roster, boolean recordMatrix) {
+        this(roster.size(), recordMatrix, roster.toArray(new Pokemon[0]));
+    }
+
+    /**
+     * Constructor que lee las estadísticas directamente de las columnas de un {@link ColumnarRoster},
+     * sin crear ningún Pokemon. Solo se crean vistas para los puestos de la clasificación.
+     *
+     * @param roster       Los Pokemon que participan. No se debe modificar mientras exista el resultado.
+     * @param recordMatrix true para guardar la matriz de victorias, que ocupa un bit por combate.
+     */
+    public Tournament(ColumnarRoster roster, boolean recordMatrix) {
+        this(roster.size(), recordMatrix, roster::get);
+        for (int i = 0; i < size; i++) {
+            health[i] = roster.getHealth(i);
+            baseDamage[i] = roster.getBaseDamage(i);
+            speed[i] = roster.getSpeed(i);
+            byte type = roster.getTypeOrdinal(i);
+            types[i] = type == ColumnarRoster.UNKNOWN_TYPE ? multipliers.length - 1 : type;
+        }
+    }
+
+    private Tournament(int size, boolean recordMatrix, Pokemon[] roster) {
+        this(size, recordMatrix, index -> roster[index]);
+        int unknownType = multipliers.length - 1;
+        for (int i = 0; i < size; i++) {
+            Pokemon pokemon = roster[i];
+            health[i] = pokemon.getHealth();
+            baseDamage[i] = pokemon.getBaseDamage();
+            speed[i] = pokemon.getSpeed();
+            types[i] = pokemon.getType() != null ? pokemon.getType().ordinal() : unknownType;
+        }
+    }
+
+    private Tournament(int size, boolean recordMatrix, IntFunction<Pokemon> pokemonAt) {
+        this.size = size;
+        this.pokemonAt = pokemonAt;
+        this.health = new double[size];
+        this.baseDamage = new double[size];
+        this.speed = new double[size];
+        this.types = new int[size];
+        this.recordMatrix = recordMatrix;
+
+        // La última fila y la última columna son para los Pokemon sin tipo conocido, con multiplicador 1
+        PokemonType[] typeValues = PokemonType.values();
+        int unknownType = typeValues.length;
+        this.multipliers = new double[typeValues.length + 1][typeValues.length + 1];
+        TypeEffectiveness effectiveness = TypeEffectiveness.getDefault();
+        for (int attacker = 0; attacker <= unknownType; attacker++) {
+            for (int defender = 0; defender <= unknownType; defender++) {
+                multipliers[attacker][defender] = effectiveness.getMultiplier(
+                        attacker < unknownType ? typeValues[attacker] : null,
+                        defender < unknownType ? typeValues[defender] : null);
+            }
+        }
+
+        this.wins = new int[size];
+        this.draws = new int[size];
+        this.losses = new int[size];
+        this.winMatrix = recordMatrix ? new long[size][(size + 63) >>> 6] : null;
+    }
+
+    /**
+     * Juega el torneo en el pool común de fork/join.
+     *
+     * @return El resultado del torneo.
+     * @throws CancellationException si se ha cancelado el torneo.
+     */
+    public TournamentResult run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Juega el torneo en un pool de fork/join concreto.
+     *
+     * @param pool El pool en el que se ejecutan las tareas.
+     * @return El resultado del torneo.
+     * @throws CancellationException si se ha cancelado el torneo.
+     */
+    public TournamentResult run(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        pool.invoke(new RowRange(0, size));
+        if (cancelled) {
+            throw new CancellationException("Tournament cancelled");
+        }
+        long duels = (long) size * (size - 1);
+        return new TournamentResult(pokemonAt, size, wins, draws, losses, winMatrix, duels, System.nanoTime() - start);
+    }
+
+    /**
+     * Pide que se detenga el torneo. Las filas que se están calculando terminan y el resto no se empiezan.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Obtiene el número de Pokemon cuyos combates ya se han calculado, para mostrar el progreso.
+     *
+     * @return Las filas completadas.
+     */
+    public int getCompletedRows() {
+        return completedRows.get();
+    }
+
+    public int getRosterSize() {
+        return size;
+    }
+
+    public boolean isRecordingMatrix() {
+        return recordMatrix;
+    }
+
+    /**
+     * Calcula todos los combates del Pokemon i contra el resto, empezando él y empezando el rival.
+     * Los ataques necesarios de cada lado son los mismos en los dos combates, así que se calculan una vez.
+     *
+     * @param i El índice del Pokemon.
+     */
+    private void playRow(int i) {
+        double ownHealth = health[i];
+        double ownSpeed = speed[i];
+        double ownDamage = baseDamage[i];
+        double[] ownMultipliers = multipliers[types[i]];
+        int ownType = types[i];
+        long[] row = winMatrix != null ? winMatrix[i] : null;
+        int rowWins = 0;
+        int rowDraws = 0;
+        int rowLosses = 0;
+
+        for (int j = 0; j < health.length; j++) {
+            if (j == i) {
+                continue;
+            }
+            long ownAttacks = BattleEngine.attacksToKnockOut(health[j], ownDamage * ownMultipliers[types[j]]);
+            long rivalAttacks = BattleEngine.attacksToKnockOut(ownHealth, baseDamage[j] * multipliers[types[j]][ownType]);
+
+            int asFirst = BattleEngine.outcome(ownAttacks, rivalAttacks, ownSpeed, speed[j]);
+            if (asFirst == BattleEngine.FIRST_WINS) {
+                rowWins++;
+                if (row != null) {
+                    row[j >>> 6] |= 1L << j;
+                }
+            } else if (asFirst == BattleEngine.SECOND_WINS) {
+                rowLosses++;
+            } else {
+                rowDraws++;
+            }
+
+            int asSecond = BattleEngine.outcome(rivalAttacks, ownAttacks, speed[j], ownSpeed);
+            if (asSecond == BattleEngine.SECOND_WINS) {
+                rowWins++;
+            } else if (asSecond == BattleEngine.FIRST_WINS) {
+                rowLosses++;
+            } else {
+                rowDraws++;
+            }
+        }
+
+        wins[i] = rowWins;
+        draws[i] = rowDraws;
+        losses[i] = rowLosses;
+        completedRows.incrementAndGet();
+    }
+
+    /**
+     * Tarea que calcula un rango de filas, dividiéndolo en dos mientras sea grande.
+     */
+    private class RowRange extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        RowRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                for (int i = from; i < to && !cancelled; i++) {
+                    playRow(i);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowRange(from, middle), new RowRange(middle, to));
+            }
+        }
+    }
+}
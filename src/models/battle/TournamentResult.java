@@ -0,0 +1,142 @@
+package models.battle;
+
+import models.Pokemon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Clase TournamentResult que guarda el resultado de un {@link Tournament}: las victorias, empates y derrotas
+ * de cada Pokemon, la matriz de victorias si se ha pedido y el rendimiento del torneo.
+ */
+public class TournamentResult {
+    private final IntFunction<Pokemon> pokemonAt;
+    private final int size;
+    private final int[] wins;
+    private final int[] draws;
+    private final int[] losses;
+    private final long[][] winMatrix;
+    private final long duels;
+    private final long elapsedNanos;
+
+    TournamentResult(IntFunction<Pokemon> pokemonAt, int size, int[] wins, int[] draws, int[] losses,
+                     long[][] winMatrix, long duels, long elapsedNanos) {
+        this.pokemonAt = pokemonAt;
+        this.size = size;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.winMatrix = winMatrix;
+        this.duels = duels;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getRosterSize() {
+        return size;
+    }
+
+    public Pokemon getPokemon(int index) {
+        return pokemonAt.apply(index);
+    }
+
+    public int getWins(int index) {
+        return wins[index];
+    }
+
+    public int getDraws(int index) {
+        return draws[index];
+    }
+
+    public int getLosses(int index) {
+        return losses[index];
+    }
+
+    public long getDuels() {
+        return duels;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calcula el rendimiento del torneo.
+     *
+     * @return Los combates resueltos por segundo, o 0 si no se ha medido tiempo.
+     */
+    public double getDuelsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : duels * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Indica si se guardó la matriz de victorias.
+     *
+     * @return true si se puede consultar {@link #beats(int, int)}.
+     */
+    public boolean hasWinMatrix() {
+        return winMatrix != null;
+    }
+
+    /**
+     * Indica si un Pokemon ganó el combate que empezó él contra otro.
+     *
+     * @param first  El índice del Pokemon que empezó.
+     * @param second El índice del rival.
+     * @return true si ganó el primero.
+     * @throws IllegalStateException si no se guardó la matriz de victorias.
+     */
+    public boolean beats(int first, int second) {
+        if (winMatrix == null) {
+            throw new IllegalStateException("The tournament did not record the win matrix");
+        }
+        return (winMatrix[first][second >>> 6] & (1L << second)) != 0;
+    }
+
+    /**
+     * Obtiene la clasificación, ordenada por victorias, después por empates y después por posición en la lista.
+     *
+     * @param limit El número máximo de puestos.
+     * @return Los primeros puestos de la clasificación.
+     */
+    public List<TournamentStanding> getLeaderboard(int limit) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                if (wins[a] != wins[b]) {
+                    return Integer.compare(wins[b], wins[a]);
+                }
+                if (draws[a] != draws[b]) {
+                    return Integer.compare(draws[b], draws[a]);
+                }
+                return Integer.compare(a, b);
+            }
+        });
+
+        int size = Math.min(limit, order.length);
+        List<TournamentStanding> leaderboard = new ArrayList<>(size);
+        for (int rank = 0; rank < size; rank++) {
+            int index = order[rank];
+            leaderboard.add(new TournamentStanding(rank + 1, pokemonAt.apply(index), wins[index], draws[index], losses[index]));
+        }
+        return Collections.unmodifiableList(leaderboard);
+    }
+
+    /**
+     * Devuelve una cadena de caracteres con el tamaño y el rendimiento del torneo.
+     *
+     * @return Una cadena con los Pokemon, los combates, los milisegundos y los combates por segundo.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d pokemon, %d duels in %.1f ms (%.0f duels/s)",
+                size, duels, elapsedNanos / 1_000_000.0, getDuelsPerSecond());
+    }
+}
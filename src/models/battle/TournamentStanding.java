@@ -0,0 +1,61 @@
+package models.battle;
+
+import models.Pokemon;
+
+/**
+ * Clase TournamentStanding que representa el puesto de un Pokemon en la clasificación de un torneo.
+ */
+public class TournamentStanding {
+    private final int rank;
+    private final Pokemon pokemon;
+    private final int wins;
+    private final int draws;
+    private final int losses;
+
+    /**
+     * Constructor de la clase TournamentStanding.
+     *
+     * @param rank    El puesto, empezando por 1.
+     * @param pokemon El Pokemon.
+     * @param wins    Las victorias del Pokemon.
+     * @param draws   Los empates del Pokemon.
+     * @param losses  Las derrotas del Pokemon.
+     */
+    public TournamentStanding(int rank, Pokemon pokemon, int wins, int draws, int losses) {
+        this.rank = rank;
+        this.pokemon = pokemon;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public Pokemon getPokemon() {
+        return pokemon;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Devuelve una cadena de caracteres que representa este puesto.
+     *
+     * @return Una cadena con el puesto, el Pokemon y sus resultados.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d. %s  W %d / D %d / L %d", rank, pokemon, wins, draws, losses);
+    }
+}
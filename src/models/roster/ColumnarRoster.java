@@ -0,0 +1,393 @@
+package models.roster;
+
+import models.Pokemon;
+import models.PokemonType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Clase ColumnarRoster que guarda una lista de Pokemon por columnas: un array de primitivos por estadística,
+ * el tipo como ordinal en un byte y los nombres en UTF-8 dentro de un único array de bytes.
+ * No hay un objeto por Pokemon, así que ocupa bastante menos memoria que una lista de {@link Pokemon}
+ * y los recorridos por una columna leen memoria contigua.
+ * <p>
+ * Para usar una entrada donde se espera un Pokemon, {@link #get(int)} devuelve una vista ligera
+ * que lee directamente de las columnas.
+ */
+public class ColumnarRoster {
+
+    /**
+     * Ordinal que se guarda para los Pokemon sin tipo conocido.
+     */
+    public static final byte UNKNOWN_TYPE = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final PokemonType[] TYPES = PokemonType.values();
+
+    private int size;
+    private double[] health;
+    private double[] attack;
+    private double[] defense;
+    private double[] speed;
+    private byte[] types;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    private byte[] nameBytes;
+    private int nameBytesUsed;
+    private long nameBytesLive;
+
+    /**
+     * Constructor por defecto de la clase ColumnarRoster.
+     */
+    public ColumnarRoster() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor de la clase ColumnarRoster.
+     *
+     * @param capacity El número de Pokemon para el que se reserva espacio al principio.
+     */
+    public ColumnarRoster(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.health = new double[capacity];
+        this.attack = new double[capacity];
+        this.defense = new double[capacity];
+        this.speed = new double[capacity];
+        this.types = new byte[capacity];
+        this.nameOffsets = new int[capacity];
+        this.nameLengths = new int[capacity];
+        this.nameBytes = new byte[capacity * 8];
+    }
+
+    /**
+     * Constructor que copia una colección de Pokemon.
+     *
+     * @param pokemons Los Pokemon a copiar, en el orden de la colección.
+     */
+    public ColumnarRoster(Collection<? extends Pokemon> pokemons) {
+        this(pokemons.size());
+        for (Pokemon pokemon : pokemons) {
+            add(pokemon);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Añade un Pokemon al final copiando sus estadísticas.
+     *
+     * @param pokemon El Pokemon a añadir.
+     * @return La posición del Pokemon añadido.
+     */
+    public int add(Pokemon pokemon) {
+        return add(pokemon.getName(), pokemon.getType(), pokemon.getHealth(), pokemon.getAttack(),
+                pokemon.getDefense(), pokemon.getSpeed());
+    }
+
+    /**
+     * Añade un Pokemon al final.
+     *
+     * @param name    El nombre del Pokemon.
+     * @param type    El tipo del Pokemon, o null si no tiene un tipo conocido.
+     * @param health  La salud del Pokemon.
+     * @param attack  El ataque del Pokemon.
+     * @param defense La defensa del Pokemon.
+     * @param speed   La velocidad del Pokemon.
+     * @return La posición del Pokemon añadido.
+     */
+    public int add(String name, PokemonType type, double health, double attack, double defense, double speed) {
+        ensureCapacity(size + 1);
+        int index = size++;
+        this.health[index] = health;
+        this.attack[index] = attack;
+        this.defense[index] = defense;
+        this.speed[index] = speed;
+        this.types[index] = toOrdinal(type);
+        storeName(index, name);
+        return index;
+    }
+
+    /**
+     * Sustituye las estadísticas de una posición por las de un Pokemon.
+     *
+     * @param index   La posición.
+     * @param pokemon El Pokemon cuyas estadísticas se copian.
+     */
+    public void set(int index, Pokemon pokemon) {
+        checkIndex(index);
+        health[index] = pokemon.getHealth();
+        attack[index] = pokemon.getAttack();
+        defense[index] = pokemon.getDefense();
+        speed[index] = pokemon.getSpeed();
+        types[index] = toOrdinal(pokemon.getType());
+        setName(index, pokemon.getName());
+    }
+
+    /**
+     * Elimina la entrada de una posición. Las entradas siguientes se desplazan una posición hacia atrás.
+     *
+     * @param index La posición a eliminar.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        nameBytesLive -= nameLengths[index];
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(health, index + 1, health, index, moved);
+            System.arraycopy(attack, index + 1, attack, index, moved);
+            System.arraycopy(defense, index + 1, defense, index, moved);
+            System.arraycopy(speed, index + 1, speed, index, moved);
+            System.arraycopy(types, index + 1, types, index, moved);
+            System.arraycopy(nameOffsets, index + 1, nameOffsets, index, moved);
+            System.arraycopy(nameLengths, index + 1, nameLengths, index, moved);
+        }
+        size--;
+        compactNamesIfWasteful();
+    }
+
+    /**
+     * Elimina todas las entradas, conservando la capacidad reservada.
+     */
+    public void clear() {
+        size = 0;
+        nameBytesUsed = 0;
+        nameBytesLive = 0;
+    }
+
+    /**
+     * Devuelve una vista de la entrada de una posición que se comporta como un Pokemon.
+     * La vista no copia nada: lee de las columnas, y apunta a la posición, no a la entrada,
+     * así que deja de corresponder a la misma entrada si se eliminan entradas anteriores.
+     *
+     * @param index La posición.
+     * @return La vista de la entrada.
+     */
+    public RosterPokemon get(int index) {
+        checkIndex(index);
+        return new RosterPokemon(this, index);
+    }
+
+    /**
+     * Crea un Pokemon independiente con las estadísticas de una posición.
+     *
+     * @param index La posición.
+     * @return Un Pokemon de la clase de su tipo.
+     * @throws IllegalStateException si la entrada no tiene un tipo conocido.
+     */
+    public Pokemon toPokemon(int index) {
+        PokemonType type = getType(index);
+        if (type == null) {
+            throw new IllegalStateException("Roster entry " + index + " has no known type");
+        }
+        return type.createPokemon(getName(index), health[index], attack[index], defense[index], speed[index]);
+    }
+
+    /**
+     * Crea una lista de Pokemon independientes con todas las entradas.
+     *
+     * @return La lista creada.
+     */
+    public List<Pokemon> toPokemonList() {
+        List<Pokemon> pokemons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pokemons.add(toPokemon(i));
+        }
+        return pokemons;
+    }
+
+    /**
+     * Devuelve una lista de solo lectura cuyos elementos son vistas de las entradas, creadas al leerlas.
+     *
+     * @return La lista de vistas.
+     */
+    public List<Pokemon> asList() {
+        return new AbstractList<Pokemon>() {
+            @Override
+            public Pokemon get(int index) {
+                return ColumnarRoster.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Obtiene el nombre de una posición. Cada llamada decodifica una cadena nueva.
+     *
+     * @param index La posición.
+     * @return El nombre.
+     */
+    public String getName(int index) {
+        checkIndex(index);
+        return new String(nameBytes, nameOffsets[index], nameLengths[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cambia el nombre de una posición. El nombre nuevo se añade al final del array de nombres
+     * y el espacio del anterior se recupera cuando el desperdicio es grande.
+     *
+     * @param index La posición.
+     * @param name  El nombre nuevo.
+     */
+    public void setName(int index, String name) {
+        checkIndex(index);
+        nameBytesLive -= nameLengths[index];
+        storeName(index, name);
+        compactNamesIfWasteful();
+    }
+
+    public double getHealth(int index) {
+        checkIndex(index);
+        return health[index];
+    }
+
+    public void setHealth(int index, double health) {
+        checkIndex(index);
+        this.health[index] = health;
+    }
+
+    public double getAttack(int index) {
+        checkIndex(index);
+        return attack[index];
+    }
+
+    public void setAttack(int index, double attack) {
+        checkIndex(index);
+        this.attack[index] = attack;
+    }
+
+    public double getDefense(int index) {
+        checkIndex(index);
+        return defense[index];
+    }
+
+    public void setDefense(int index, double defense) {
+        checkIndex(index);
+        this.defense[index] = defense;
+    }
+
+    public double getSpeed(int index) {
+        checkIndex(index);
+        return speed[index];
+    }
+
+    public void setSpeed(int index, double speed) {
+        checkIndex(index);
+        this.speed[index] = speed;
+    }
+
+    /**
+     * Obtiene el daño base de una posición, como {@link Pokemon#getBaseDamage()}.
+     *
+     * @param index La posición.
+     * @return El ataque entre la defensa.
+     */
+    public double getBaseDamage(int index) {
+        checkIndex(index);
+        return attack[index] / defense[index];
+    }
+
+    /**
+     * Obtiene el tipo de una posición.
+     *
+     * @param index La posición.
+     * @return El tipo, o null si no tiene un tipo conocido.
+     */
+    public PokemonType getType(int index) {
+        byte ordinal = getTypeOrdinal(index);
+        return ordinal == UNKNOWN_TYPE ? null : TYPES[ordinal];
+    }
+
+    /**
+     * Obtiene el ordinal del tipo de una posición, sin pasar por la enumeración.
+     *
+     * @param index La posición.
+     * @return El ordinal, o {@link #UNKNOWN_TYPE} si no tiene un tipo conocido.
+     */
+    public byte getTypeOrdinal(int index) {
+        checkIndex(index);
+        return types[index];
+    }
+
+    /**
+     * Calcula aproximadamente la memoria que ocupan las columnas, contando solo la parte en uso.
+     *
+     * @return Los bytes usados por las estadísticas, los tipos y los nombres.
+     */
+    public long getUsedBytes() {
+        // 4 doubles, 1 byte de tipo y 2 ints de nombre por entrada
+        return (long) size * (4 * Double.BYTES + 1 + 2 * Integer.BYTES) + nameBytesUsed;
+    }
+
+    private static byte toOrdinal(PokemonType type) {
+        return type == null ? UNKNOWN_TYPE : (byte) type.ordinal();
+    }
+
+    private void storeName(int index, String name) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytesUsed + encoded.length > nameBytes.length) {
+            nameBytes = Arrays.copyOf(nameBytes, Math.max(nameBytes.length * 2, nameBytesUsed + encoded.length));
+        }
+        System.arraycopy(encoded, 0, nameBytes, nameBytesUsed, encoded.length);
+        nameOffsets[index] = nameBytesUsed;
+        nameLengths[index] = encoded.length;
+        nameBytesUsed += encoded.length;
+        nameBytesLive += encoded.length;
+    }
+
+    /**
+     * Reescribe el array de nombres sin los huecos que dejan los nombres cambiados o eliminados,
+     * solo cuando más de la mitad del array usado es desperdicio.
+     */
+    private void compactNamesIfWasteful() {
+        if (nameBytesLive * 2 >= nameBytesUsed) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max((int) nameBytesLive, DEFAULT_CAPACITY)];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(nameBytes, nameOffsets[i], compacted, offset, nameLengths[i]);
+            nameOffsets[i] = offset;
+            offset += nameLengths[i];
+        }
+        nameBytes = compacted;
+        nameBytesUsed = offset;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= health.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, health.length + (health.length >> 1)));
+        health = Arrays.copyOf(health, newCapacity);
+        attack = Arrays.copyOf(attack, newCapacity);
+        defense = Arrays.copyOf(defense, newCapacity);
+        speed = Arrays.copyOf(speed, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, newCapacity);
+        nameLengths = Arrays.copyOf(nameLengths, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
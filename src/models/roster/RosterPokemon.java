@@ -0,0 +1,117 @@
+package models.roster;
+
+import models.Pokemon;
+import models.PokemonSpecies;
+import models.PokemonType;
+
+/**
+ * Clase RosterPokemon que representa una vista de una entrada de un {@link ColumnarRoster}.
+ * No guarda estadísticas propias: todos los getters leen de las columnas del roster, así que crear una vista
+ * es barato y no hace falta conservarla. La entrada se cambia con los setters del roster.
+ * <p>
+ * A diferencia del resto de Pokemon, una vista cambia si cambia el roster, así que no guarda su código hash
+ * y no debe usarse como clave ni compartirse entre hilos; {@link #clone()} devuelve un Pokemon independiente.
+ */
+public class RosterPokemon extends Pokemon {
+    private final ColumnarRoster roster;
+    private final int index;
+
+    RosterPokemon(ColumnarRoster roster, int index) {
+        super(null, 0, 0, 0, 0);
+        this.roster = roster;
+        this.index = index;
+    }
+
+    public ColumnarRoster getRoster() {
+        return roster;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String getName() {
+        return roster.getName(index);
+    }
+
+    @Override
+    public double getHealth() {
+        return roster.getHealth(index);
+    }
+
+    @Override
+    public double getAttack() {
+        return roster.getAttack(index);
+    }
+
+    @Override
+    public double getDefense() {
+        return roster.getDefense(index);
+    }
+
+    @Override
+    public double getSpeed() {
+        return roster.getSpeed(index);
+    }
+
+    @Override
+    public PokemonType getType() {
+        return roster.getType(index);
+    }
+
+    /**
+     * Devuelve una plantilla con las estadísticas actuales de la entrada, que viven en las columnas del roster.
+     *
+     * @return La plantilla de la entrada.
+     */
+    @Override
+    public PokemonSpecies getSpecies() {
+        return PokemonSpecies.of(getName(), getHealth(), getAttack(), getDefense(), getSpeed());
+    }
+
+    /**
+     * Comprueba si un objeto es igual a esta vista. Todas las vistas son de la misma clase,
+     * así que además de las estadísticas se compara el tipo.
+     *
+     * @param obj El objeto a comparar.
+     * @return true si los objetos son iguales, false de lo contrario.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && getType() == ((Pokemon) obj).getType();
+    }
+
+    @Override
+    public int hashCode() {
+        return computeHashCode();
+    }
+
+    /**
+     * Crea un Pokemon independiente, de la clase del tipo de la entrada, con otro nombre y estadísticas.
+     *
+     * @param species La plantilla del nuevo Pokemon.
+     * @return El nuevo Pokemon.
+     * @throws IllegalStateException si la entrada no tiene un tipo conocido.
+     */
+    @Override
+    protected Pokemon withSpecies(PokemonSpecies species) {
+        PokemonType type = getType();
+        if (type == null) {
+            throw new IllegalStateException("Roster entry " + index + " has no known type");
+        }
+        return type.createPokemon(species.getName(), species.getHealth(), species.getAttack(),
+                species.getDefense(), species.getSpeed());
+    }
+
+    /**
+     * Crea un Pokemon independiente con las estadísticas actuales de la entrada.
+     * Un clon de la vista seguiría apuntando a las mismas columnas, así que se devuelve una copia.
+     *
+     * @return Un Pokemon de la clase de su tipo.
+     */
+    @Override
+    public Pokemon clone() {
+        return roster.toPokemon(index);
+    }
+}
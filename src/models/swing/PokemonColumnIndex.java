@@ -0,0 +1,396 @@
+package models.swing;
+
+import models.Pokemon;
+import models.PokemonType;
+
+import java.util.Arrays;
+
+/**
+ * Clase PokemonColumnIndex que mantiene las filas de un {@link PokemonTableModel} ordenadas por una columna.
+ * Al construirlo se copia el valor de la columna de cada fila a un array de primitivos (o de cadenas, para el nombre),
+ * así que ordenar compara directamente esos valores, sin llamar a getValueAt ni crear objetos.
+ * Los empates se deshacen por la posición de la fila en el modelo, de modo que el orden es siempre el mismo.
+ * <p>
+ * Cuando cambian pocas filas, cada una se recoloca con una búsqueda binaria; si cambian muchas, se ordenan solo esas
+ * y se mezclan con el resto. En ningún caso se reordena todo el índice.
+ */
+class PokemonColumnIndex {
+
+    static final int NAME_COLUMN = 0;
+    static final int TYPE_COLUMN = 5;
+
+    /**
+     * Posición de cada tipo, por ordinal, en el orden alfabético de los nombres para mostrar.
+     */
+    private static final double[] TYPE_RANKS = new double[PokemonType.values().length];
+
+    static {
+        PokemonType[] types = PokemonType.values();
+        Arrays.sort(types, (first, second) -> String.CASE_INSENSITIVE_ORDER.compare(first.getDisplayName(), second.getDisplayName()));
+        for (int i = 0; i < types.length; i++) {
+            TYPE_RANKS[types[i].ordinal()] = i;
+        }
+    }
+
+    /**
+     * Hasta este número de filas cambiadas, cada una se recoloca con una búsqueda binaria en lugar de mezclar todo el índice.
+     */
+    private static final int MAX_RELOCATED_ROWS = 32;
+
+    private final int column;
+    private double[] values;
+    private String[] names;
+    private int[] order = new int[0];
+    private int[] buffer = new int[0];
+    private int size;
+
+    /**
+     * Constructor de la clase PokemonColumnIndex.
+     *
+     * @param column La columna del modelo por la que se ordena.
+     */
+    PokemonColumnIndex(int column) {
+        this.column = column;
+        if (column == NAME_COLUMN) {
+            names = new String[0];
+        } else {
+            values = new double[0];
+        }
+    }
+
+    /**
+     * Lee la columna de todas las filas del modelo y las ordena.
+     *
+     * @param model El modelo.
+     */
+    void rebuild(PokemonTableModel model) {
+        size = model.getRowCount();
+        ensureCapacity(size);
+        for (int row = 0; row < size; row++) {
+            readKey(model, row);
+            order[row] = row;
+        }
+        sort(order, 0, size);
+    }
+
+    /**
+     * Registra filas insertadas en el modelo. Las filas siguientes se desplazan, se ordenan solo las nuevas
+     * y se mezclan con las que ya estaban ordenadas.
+     *
+     * @param model     El modelo, que ya contiene las filas.
+     * @param firstRow  La primera fila insertada.
+     * @param lastRow   La última fila insertada.
+     */
+    void inserted(PokemonTableModel model, int firstRow, int lastRow) {
+        int count = lastRow - firstRow + 1;
+        ensureCapacity(size + count);
+        if (names != null) {
+            System.arraycopy(names, firstRow, names, lastRow + 1, size - firstRow);
+        } else {
+            System.arraycopy(values, firstRow, values, lastRow + 1, size - firstRow);
+        }
+        if (firstRow < size) {
+            for (int i = 0; i < size; i++) {
+                if (order[i] >= firstRow) {
+                    order[i] += count;
+                }
+            }
+        }
+        if (count <= MAX_RELOCATED_ROWS) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                readKey(model, row);
+                insertSorted(row);
+            }
+            return;
+        }
+        // Las filas nuevas se ordenan al final de order, que tiene espacio para ellas, y después se mezclan
+        for (int row = firstRow; row <= lastRow; row++) {
+            readKey(model, row);
+            order[size + row - firstRow] = row;
+        }
+        sort(order, size, size + count);
+        merge(size, size + count);
+        size += count;
+    }
+
+    /**
+     * Registra filas eliminadas del modelo. Las filas siguientes se desplazan hacia atrás.
+     *
+     * @param firstRow La primera fila eliminada.
+     * @param lastRow  La última fila eliminada.
+     */
+    void deleted(int firstRow, int lastRow) {
+        int count = lastRow - firstRow + 1;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            if (row < firstRow) {
+                order[kept++] = row;
+            } else if (row > lastRow) {
+                order[kept++] = row - count;
+            }
+        }
+        if (names != null) {
+            System.arraycopy(names, lastRow + 1, names, firstRow, size - lastRow - 1);
+            Arrays.fill(names, size - count, size, null);
+        } else {
+            System.arraycopy(values, lastRow + 1, values, firstRow, size - lastRow - 1);
+        }
+        size -= count;
+    }
+
+    /**
+     * Registra filas modificadas del modelo. Solo se recolocan las filas cuyo valor en la columna ha cambiado.
+     *
+     * @param model    El modelo.
+     * @param firstRow La primera fila modificada.
+     * @param lastRow  La última fila modificada.
+     */
+    void updated(PokemonTableModel model, int firstRow, int lastRow) {
+        ensureCapacity(size);
+        // Las filas cambiadas se apartan en buffer con su valor anterior todavía en el array de valores
+        int changed = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (keyChanged(model, row)) {
+                buffer[changed++] = row;
+            }
+        }
+        if (changed == 0) {
+            return;
+        }
+        if (changed <= MAX_RELOCATED_ROWS) {
+            for (int i = 0; i < changed; i++) {
+                int row = buffer[i];
+                int position = positionOf(row);
+                System.arraycopy(order, position + 1, order, position, size - position - 1);
+                size--;
+                readKey(model, row);
+                insertSorted(row);
+            }
+            return;
+        }
+        int kept = 0;
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            if (next < changed && isChanged(row, buffer, changed)) {
+                next++;
+            } else {
+                order[kept++] = row;
+            }
+        }
+        for (int i = 0; i < changed; i++) {
+            readKey(model, buffer[i]);
+            order[kept + i] = buffer[i];
+        }
+        sort(order, kept, size);
+        merge(kept, size);
+    }
+
+    /**
+     * Obtiene el número de filas del índice.
+     *
+     * @return El número de filas.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Obtiene la fila del modelo que ocupa una posición en orden ascendente.
+     *
+     * @param position La posición en el orden.
+     * @return La fila del modelo.
+     */
+    int rowAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Comprueba si dos filas tienen el mismo valor en la columna, es decir, si solo las ordena su posición.
+     *
+     * @param firstRow  Una fila del modelo.
+     * @param secondRow Otra fila del modelo.
+     * @return true si empatan.
+     */
+    boolean sameKey(int firstRow, int secondRow) {
+        if (names != null) {
+            return names[firstRow].equals(names[secondRow]);
+        }
+        return Double.compare(values[firstRow], values[secondRow]) == 0;
+    }
+
+    /**
+     * Busca la posición de una fila en el orden con el valor que tiene guardado en el índice.
+     */
+    private int positionOf(int row) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(order[middle], row);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        throw new IllegalStateException("Row " + row + " is not in the index");
+    }
+
+    /**
+     * Inserta una fila, cuyo valor ya está guardado, en su posición del orden. Debe haber espacio para ella.
+     */
+    private void insertSorted(int row) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(order[middle], row) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        System.arraycopy(order, low, order, low + 1, size - low);
+        order[low] = row;
+        size++;
+    }
+
+    private int compare(int firstRow, int secondRow) {
+        int comparison;
+        if (names != null) {
+            comparison = String.CASE_INSENSITIVE_ORDER.compare(names[firstRow], names[secondRow]);
+            if (comparison == 0) {
+                comparison = names[firstRow].compareTo(names[secondRow]);
+            }
+        } else {
+            comparison = Double.compare(values[firstRow], values[secondRow]);
+        }
+        return comparison != 0 ? comparison : Integer.compare(firstRow, secondRow);
+    }
+
+    private void readKey(PokemonTableModel model, int row) {
+        Pokemon pokemon = model.getPokemon(row);
+        if (names != null) {
+            names[row] = pokemon == null || pokemon.getName() == null ? "" : pokemon.getName();
+        } else {
+            values[row] = keyOf(pokemon);
+        }
+    }
+
+    private boolean keyChanged(PokemonTableModel model, int row) {
+        Pokemon pokemon = model.getPokemon(row);
+        if (names != null) {
+            String name = pokemon == null || pokemon.getName() == null ? "" : pokemon.getName();
+            return !name.equals(names[row]);
+        }
+        return Double.compare(keyOf(pokemon), values[row]) != 0;
+    }
+
+    private double keyOf(Pokemon pokemon) {
+        if (pokemon == null) {
+            return Double.NaN;
+        }
+        switch (column) {
+            case 1:
+                return pokemon.getHealth();
+            case 2:
+                return pokemon.getAttack();
+            case 3:
+                return pokemon.getDefense();
+            case 4:
+                return pokemon.getSpeed();
+            case TYPE_COLUMN:
+                PokemonType type = pokemon.getType();
+                return type == null ? -1 : TYPE_RANKS[type.ordinal()];
+            default:
+                throw new IllegalStateException("Column " + column + " cannot be indexed");
+        }
+    }
+
+    /**
+     * Comprueba si una fila está entre las cambiadas, que están en orden creciente al principio de rows.
+     */
+    private static boolean isChanged(int row, int[] rows, int count) {
+        return Arrays.binarySearch(rows, 0, count, row) >= 0;
+    }
+
+    /**
+     * Mezcla los dos tramos ordenados [0, middle) y [middle, end) de order, usando buffer como destino.
+     */
+    private void merge(int middle, int end) {
+        if (middle == 0 || middle == end || compare(order[middle - 1], order[middle]) < 0) {
+            return;
+        }
+        int left = 0;
+        int right = middle;
+        int target = 0;
+        while (left < middle && right < end) {
+            buffer[target++] = compare(order[left], order[right]) <= 0 ? order[left++] : order[right++];
+        }
+        while (left < middle) {
+            buffer[target++] = order[left++];
+        }
+        while (right < end) {
+            buffer[target++] = order[right++];
+        }
+        int[] sorted = buffer;
+        buffer = order;
+        order = sorted;
+    }
+
+    /**
+     * Ordena el tramo [from, to) de rows con una ordenación por mezcla, usando buffer como espacio auxiliar.
+     * Los tramos cortos se ordenan por inserción.
+     */
+    private void sort(int[] rows, int from, int to) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && compare(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(rows, from, middle);
+        sort(rows, middle, to);
+        if (compare(rows[middle - 1], rows[middle]) < 0) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, middle - from);
+        int left = from;
+        int right = middle;
+        int target = from;
+        while (left < middle && right < to) {
+            rows[target++] = compare(buffer[left], rows[right]) <= 0 ? buffer[left++] : rows[right++];
+        }
+        while (left < middle) {
+            rows[target++] = buffer[left++];
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= order.length) {
+            if (buffer.length < capacity) {
+                buffer = new int[order.length];
+            }
+            return;
+        }
+        int newCapacity = Math.max(capacity, order.length + (order.length >> 1));
+        order = Arrays.copyOf(order, newCapacity);
+        buffer = new int[newCapacity];
+        if (names != null) {
+            names = Arrays.copyOf(names, newCapacity);
+        } else {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+}
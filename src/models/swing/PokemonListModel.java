@@ -0,0 +1,158 @@
+package models.swing;
+
+import models.Pokemon;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Clase PokemonListModel que muestra las filas de un {@link PokemonTableModel} en una JList sin copiarlas.
+ * Cada elemento se lee del modelo de la tabla cuando la lista lo pide, así que crear la vista no cuesta nada
+ * aunque haya millones de filas, y si las filas se cargan por páginas solo se cargan las que se muestran.
+ * Los cambios del modelo de la tabla se reenvían a la lista, de modo que la vista nunca se queda desactualizada.
+ * <p>
+ * Opcionalmente se puede filtrar con un predicado. Las posiciones de las filas que lo cumplen se calculan
+ * la primera vez que se necesitan y se recalculan cuando cambia el modelo. La vista es de solo lectura.
+ */
+public class PokemonListModel extends AbstractListModel<Pokemon> implements TableModelListener {
+
+    private final PokemonTableModel model;
+    private Predicate<? super Pokemon> filter;
+    private int[] filteredRows;
+    private int filteredSize;
+    private int size;
+
+    /**
+     * Constructor de la clase PokemonListModel. La vista empieza a escuchar los cambios del modelo de la tabla
+     * hasta que se llama a {@link #detach()}.
+     *
+     * @param model El modelo de la tabla.
+     */
+    public PokemonListModel(PokemonTableModel model) {
+        this.model = model;
+        this.size = model.getRowCount();
+        model.addTableModelListener(this);
+    }
+
+    /**
+     * Deja de escuchar los cambios del modelo de la tabla, para que este no mantenga viva la vista.
+     */
+    public void detach() {
+        model.removeTableModelListener(this);
+    }
+
+    /**
+     * Cambia el filtro de la vista.
+     *
+     * @param filter El predicado que deben cumplir los Pokemon que se muestran, o null para mostrarlos todos.
+     */
+    public void setFilter(Predicate<? super Pokemon> filter) {
+        this.filter = filter;
+        filteredRows = null;
+        refresh();
+    }
+
+    public Predicate<? super Pokemon> getFilter() {
+        return filter;
+    }
+
+    @Override
+    public int getSize() {
+        if (filter == null) {
+            return model.getRowCount();
+        }
+        ensureFiltered();
+        return filteredSize;
+    }
+
+    @Override
+    public Pokemon getElementAt(int index) {
+        return model.getPokemon(getRowAt(index));
+    }
+
+    /**
+     * Obtiene la fila del modelo de la tabla que se muestra en una posición de la lista.
+     *
+     * @param index La posición en la lista.
+     * @return La fila del modelo de la tabla.
+     */
+    public int getRowAt(int index) {
+        if (filter == null) {
+            return index;
+        }
+        ensureFiltered();
+        if (index < 0 || index >= filteredSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + filteredSize);
+        }
+        return filteredRows[index];
+    }
+
+    /**
+     * Reenvía un cambio del modelo de la tabla a la lista. Sin filtro, las filas de la lista son las de la tabla
+     * y el evento se traduce directamente; con filtro, se recalculan las filas y se avisa de un cambio completo.
+     *
+     * @param event El evento del modelo de la tabla.
+     */
+    @Override
+    public void tableChanged(TableModelEvent event) {
+        int firstRow = event.getFirstRow();
+        int lastRow = event.getLastRow();
+        if (filter != null || firstRow == TableModelEvent.HEADER_ROW || lastRow == Integer.MAX_VALUE) {
+            filteredRows = null;
+            refresh();
+            return;
+        }
+        switch (event.getType()) {
+            case TableModelEvent.INSERT:
+                size += lastRow - firstRow + 1;
+                fireIntervalAdded(this, firstRow, lastRow);
+                break;
+            case TableModelEvent.DELETE:
+                size -= lastRow - firstRow + 1;
+                fireIntervalRemoved(this, firstRow, lastRow);
+                break;
+            default:
+                fireContentsChanged(this, firstRow, lastRow);
+                break;
+        }
+    }
+
+    /**
+     * Avisa de que puede haber cambiado cualquier elemento. Si cambia el tamaño, también se avisa de los elementos
+     * añadidos o quitados al final, para que la selección de la lista no apunte fuera de ella.
+     */
+    private void refresh() {
+        int oldSize = size;
+        size = getSize();
+        if (size < oldSize) {
+            fireIntervalRemoved(this, size, oldSize - 1);
+        } else if (size > oldSize) {
+            fireIntervalAdded(this, oldSize, size - 1);
+        }
+        if (size > 0) {
+            fireContentsChanged(this, 0, size - 1);
+        }
+    }
+
+    private void ensureFiltered() {
+        if (filteredRows != null) {
+            return;
+        }
+        int rowCount = model.getRowCount();
+        int[] rows = new int[Math.min(rowCount, 1024)];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (filter.test(model.getPokemon(row))) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, Math.min(rowCount, rows.length * 2));
+                }
+                rows[count++] = row;
+            }
+        }
+        filteredRows = rows;
+        filteredSize = count;
+    }
+}
@@ -0,0 +1,38 @@
+package models.swing;
+
+import javax.swing.*;
+
+/**
+ * Clase PokemonNameFilter que filtra las filas de un {@link PokemonTableModel} con el resultado de una búsqueda
+ * en su {@link PokemonNameIndex}. Comprobar una fila solo consulta su id en las coincidencias.
+ * Las coincidencias se calculan al crear el filtro, así que se debe crear otro si cambian las filas.
+ */
+public class PokemonNameFilter extends RowFilter<PokemonTableModel, Integer> {
+
+    private final PokemonNameIndex.Matches matches;
+
+    /**
+     * Constructor de la clase PokemonNameFilter.
+     *
+     * @param model El modelo cuyas filas se filtran.
+     * @param query El texto a buscar en los nombres.
+     * @param fuzzy true para incluir las coincidencias aproximadas.
+     */
+    public PokemonNameFilter(PokemonTableModel model, String query, boolean fuzzy) {
+        this.matches = model.findByName(query, fuzzy);
+    }
+
+    @Override
+    public boolean include(Entry<? extends PokemonTableModel, ? extends Integer> entry) {
+        return matches.contains(entry.getModel().getRowId(entry.getIdentifier()));
+    }
+
+    /**
+     * Obtiene el número de filas que muestra el filtro.
+     *
+     * @return El número de coincidencias.
+     */
+    public int getMatchCount() {
+        return matches.size();
+    }
+}
@@ -0,0 +1,382 @@
+package models.swing;
+
+import models.Pokemon;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clase PokemonNameIndex que indexa los nombres de las filas de un {@link PokemonTableModel} por su id estable.
+ * Los nombres, en minúsculas, se guardan en un array ordenado, así que una búsqueda por prefijo es una búsqueda binaria
+ * y un recorrido de las coincidencias. Para las búsquedas aproximadas se mantiene además un índice de trigramas,
+ * que solo se construye la primera vez que se usa.
+ * <p>
+ * Los cambios de una fila se aplican directamente al índice. Los cambios masivos lo invalidan y el modelo
+ * lo reconstruye entero antes de la siguiente búsqueda.
+ */
+public class PokemonNameIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String GRAM_PADDING = "  ";
+
+    /**
+     * Fracción de los trigramas de la búsqueda que debe contener un nombre para considerarlo una coincidencia aproximada.
+     */
+    private static final double MIN_SHARED_GRAMS = 0.5;
+
+    private String[] keys = new String[0];
+    private long[] ids = new long[0];
+    private int size;
+    private boolean valid;
+    private Map<Long, PostingList> grams;
+
+    /**
+     * Indica si el índice refleja las filas del modelo.
+     *
+     * @return false si hay que reconstruirlo antes de buscar.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Marca el índice para reconstruirlo antes de la siguiente búsqueda y libera su memoria.
+     */
+    public void invalidate() {
+        valid = false;
+        keys = new String[0];
+        ids = new long[0];
+        size = 0;
+        grams = null;
+    }
+
+    /**
+     * Reconstruye el índice con todas las filas.
+     *
+     * @param rowIds   Los ids de las filas.
+     * @param pokemons Los Pokemon de las filas, en el mismo orden que los ids.
+     */
+    public void rebuild(List<Long> rowIds, List<Pokemon> pokemons) {
+        size = rowIds.size();
+        Entry[] entries = new Entry[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new Entry(normalize(pokemons.get(i).getName()), rowIds.get(i));
+        }
+        Arrays.parallelSort(entries);
+        keys = new String[size];
+        ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = entries[i].key;
+            ids[i] = entries[i].id;
+        }
+        grams = null;
+        valid = true;
+    }
+
+    /**
+     * Añade una fila al índice. No hace nada si el índice está invalidado.
+     *
+     * @param id   El id de la fila.
+     * @param name El nombre del Pokemon.
+     */
+    public void add(long id, String name) {
+        if (!valid) {
+            return;
+        }
+        String key = normalize(name);
+        int position = -(find(key, id) + 1);
+        if (size == keys.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            keys = Arrays.copyOf(keys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = id;
+        size++;
+        if (grams != null) {
+            for (long gram : gramsOf(key)) {
+                PostingList postings = grams.get(gram);
+                if (postings == null) {
+                    postings = new PostingList();
+                    grams.put(gram, postings);
+                }
+                postings.add(id);
+            }
+        }
+    }
+
+    /**
+     * Elimina una fila del índice. No hace nada si el índice está invalidado.
+     *
+     * @param id   El id de la fila.
+     * @param name El nombre con el que se indexó. Si el Pokemon se ha modificado y ya no coincide,
+     *             la fila se busca recorriendo el índice.
+     */
+    public void remove(long id, String name) {
+        if (!valid) {
+            return;
+        }
+        int position = find(normalize(name), id);
+        if (position < 0) {
+            position = -1;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                return;
+            }
+        }
+        String key = keys[position];
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        keys[--size] = null;
+        if (grams != null) {
+            for (long gram : gramsOf(key)) {
+                PostingList postings = grams.get(gram);
+                if (postings != null && postings.remove(id) && postings.size == 0) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Busca las filas cuyo nombre empieza por el texto dado, sin distinguir mayúsculas.
+     * Si la búsqueda es aproximada, también se incluyen los nombres que comparten al menos la mitad
+     * de los trigramas del texto.
+     *
+     * @param query El texto a buscar.
+     * @param fuzzy true para incluir las coincidencias aproximadas.
+     * @return Los ids de las filas que coinciden.
+     * @throws IllegalStateException si el índice está invalidado.
+     */
+    public Matches find(String query, boolean fuzzy) {
+        if (!valid) {
+            throw new IllegalStateException("The name index must be rebuilt before searching");
+        }
+        String key = normalize(query);
+        Matches matches = new Matches();
+        int position = lowerBound(key);
+        while (position < size && keys[position].startsWith(key)) {
+            matches.add(ids[position++]);
+        }
+        if (fuzzy && !key.isEmpty()) {
+            addFuzzyMatches(key, matches);
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void addFuzzyMatches(String key, Matches matches) {
+        if (grams == null) {
+            buildGrams();
+        }
+        long[] queryGrams = gramsOf(key);
+        int required = Math.max(1, (int) Math.ceil(queryGrams.length * MIN_SHARED_GRAMS));
+
+        // Cada lista está ordenada y no repite ids: tras juntarlas y ordenarlas, cada id aparece tantas veces como trigramas comparte
+        int total = 0;
+        PostingList[] lists = new PostingList[queryGrams.length];
+        for (int i = 0; i < queryGrams.length; i++) {
+            lists[i] = grams.get(queryGrams[i]);
+            total += lists[i] != null ? lists[i].size : 0;
+        }
+        long[] candidates = new long[total];
+        int offset = 0;
+        for (PostingList postings : lists) {
+            if (postings != null) {
+                System.arraycopy(postings.ids, 0, candidates, offset, postings.size);
+                offset += postings.size;
+            }
+        }
+        Arrays.sort(candidates);
+        for (int start = 0; start < total; ) {
+            int end = start + 1;
+            while (end < total && candidates[end] == candidates[start]) {
+                end++;
+            }
+            if (end - start >= required) {
+                matches.add(candidates[start]);
+            }
+            start = end;
+        }
+    }
+
+    private void buildGrams() {
+        // Las filas están ordenadas por nombre, no por id: se añaden sin orden y se ordena cada lista al final
+        grams = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            for (long gram : gramsOf(keys[i])) {
+                PostingList postings = grams.get(gram);
+                if (postings == null) {
+                    postings = new PostingList();
+                    grams.put(gram, postings);
+                }
+                postings.append(ids[i]);
+            }
+        }
+        for (PostingList postings : grams.values()) {
+            Arrays.sort(postings.ids, 0, postings.size);
+        }
+    }
+
+    /**
+     * Obtiene los trigramas distintos de un texto, con dos espacios delante y uno detrás
+     * para que los primeros caracteres cuenten más. Cada trigrama se codifica en un long.
+     */
+    private static long[] gramsOf(String key) {
+        String padded = GRAM_PADDING + key + " ";
+        long[] result = new long[padded.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Busca la posición exacta de una fila, ordenando por nombre y después por id.
+     *
+     * @return La posición si está, o -(punto de inserción) - 1 si no está.
+     */
+    private int find(String key, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keys[middle].compareTo(key);
+            if (comparison == 0) {
+                comparison = Long.compare(ids[middle], id);
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fila del índice durante una reconstrucción, ordenada por nombre y después por id.
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final String key;
+        private final long id;
+
+        Entry(String key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Lista ordenada de los ids de las filas que contienen un trigrama.
+     */
+    private static class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void append(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            // Los ids nuevos suelen ser los mayores, así que casi siempre se añaden al final
+            int position = size > 0 && ids[size - 1] > id ? -(Arrays.binarySearch(ids, 0, size, id) + 1) : size;
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Clase Matches que representa los ids de las filas que coinciden con una búsqueda.
+     * Los ids que caben en un int se guardan en un BitSet, así que comprobar una fila no crea objetos.
+     */
+    public static class Matches {
+        private final BitSet smallIds = new BitSet();
+        private final Set<Long> largeIds = new HashSet<>();
+
+        void add(long id) {
+            if (id >= 0 && id <= Integer.MAX_VALUE) {
+                smallIds.set((int) id);
+            } else {
+                largeIds.add(id);
+            }
+        }
+
+        public boolean contains(long id) {
+            if (id >= 0 && id <= Integer.MAX_VALUE) {
+                return smallIds.get((int) id);
+            }
+            return largeIds.contains(id);
+        }
+
+        public int size() {
+            return smallIds.cardinality() + largeIds.size();
+        }
+    }
+}
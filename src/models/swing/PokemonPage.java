@@ -0,0 +1,47 @@
+package models.swing;
+
+import models.Pokemon;
+
+/**
+ * Clase PokemonPage que representa una ventana de filas consecutivas leídas de un {@link PokemonPageSource}.
+ * Guarda los ids y los Pokemon en arrays paralelos, en el mismo orden en el que se muestran.
+ */
+public class PokemonPage {
+    private final long[] ids;
+    private final Pokemon[] pokemons;
+
+    /**
+     * Constructor de la clase PokemonPage.
+     *
+     * @param ids      Los ids de las filas.
+     * @param pokemons Los Pokemon de las filas, en el mismo orden que los ids.
+     */
+    public PokemonPage(long[] ids, Pokemon[] pokemons) {
+        if (ids.length != pokemons.length) {
+            throw new IllegalArgumentException("ids and pokemons must have the same length");
+        }
+        this.ids = ids;
+        this.pokemons = pokemons;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public Pokemon getPokemon(int index) {
+        return pokemons[index];
+    }
+
+    /**
+     * Devuelve el id de la última fila de la página, que es el punto de partida de la página siguiente.
+     *
+     * @return El id de la última fila.
+     */
+    public long getLastId() {
+        return ids[ids.length - 1];
+    }
+}
@@ -0,0 +1,106 @@
+package models.swing;
+
+import models.Pokemon;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Clase PokemonPageCache que da acceso por índice a las filas de un {@link PokemonPageSource}
+ * cargando las páginas bajo demanda y guardando solo las usadas más recientemente.
+ * Recuerda el último id de cada página leída para que la página siguiente se pueda pedir por clave
+ * en lugar de por posición.
+ */
+class PokemonPageCache {
+    private final PokemonPageSource source;
+    private final int rowCount;
+    private final int pageSize;
+    private final Map<Integer, PokemonPage> pages;
+    private final long[] lastIds;
+    private final BitSet knownLastIds = new BitSet();
+
+    /**
+     * Constructor de la clase PokemonPageCache.
+     *
+     * @param source         La fuente de las páginas.
+     * @param pageSize       El número de filas de cada página.
+     * @param maxCachedPages El número máximo de páginas en memoria.
+     */
+    PokemonPageCache(PokemonPageSource source, int pageSize, final int maxCachedPages) {
+        if (pageSize <= 0 || maxCachedPages <= 0) {
+            throw new IllegalArgumentException("Page size and cache size must be positive");
+        }
+        this.source = source;
+        this.rowCount = source.getRowCount();
+        this.pageSize = pageSize;
+        this.lastIds = new long[(rowCount + pageSize - 1) / pageSize];
+        this.pages = new LinkedHashMap<Integer, PokemonPage>(maxCachedPages * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, PokemonPage> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    int size() {
+        return rowCount;
+    }
+
+    Pokemon getPokemon(int row) {
+        PokemonPage page = getPage(row / pageSize);
+        int index = row % pageSize;
+        return index < page.size() ? page.getPokemon(index) : null;
+    }
+
+    /**
+     * Obtiene el id de una fila. Como {@link #getPokemon(int)}, si la fuente tiene ahora menos filas que al abrirla
+     * y la fila ya no existe, no falla.
+     *
+     * @param row La fila.
+     * @return El id de la fila, o {@link PokemonTableModel#MISSING_ROW_ID} si ya no existe.
+     */
+    long getRowId(int row) {
+        PokemonPage page = getPage(row / pageSize);
+        int index = row % pageSize;
+        return index < page.size() ? page.getId(index) : PokemonTableModel.MISSING_ROW_ID;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Lee una página sin guardarla en la caché, por ejemplo para recorrer la fuente entera.
+     *
+     * @param pageIndex El índice de la página.
+     * @return La página leída.
+     */
+    PokemonPage loadUncached(int pageIndex) {
+        PokemonPage page = pages.get(pageIndex);
+        return page != null ? page : load(pageIndex);
+    }
+
+    private PokemonPage getPage(int pageIndex) {
+        PokemonPage page = pages.get(pageIndex);
+        if (page == null) {
+            page = load(pageIndex);
+            pages.put(pageIndex, page);
+        }
+        return page;
+    }
+
+    private PokemonPage load(int pageIndex) {
+        PokemonPage page;
+        if (pageIndex > 0 && knownLastIds.get(pageIndex - 1)) {
+            page = source.loadPageAfter(lastIds[pageIndex - 1], pageSize);
+        } else {
+            page = source.loadPageAt(pageIndex * pageSize, pageSize);
+        }
+        if (page.size() > 0 && pageIndex < lastIds.length) {
+            lastIds[pageIndex] = page.getLastId();
+            knownLastIds.set(pageIndex);
+        }
+        return page;
+    }
+}
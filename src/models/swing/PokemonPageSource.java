@@ -0,0 +1,33 @@
+package models.swing;
+
+/**
+ * Interfaz PokemonPageSource que permite leer una lista de Pokemon por páginas, ordenada por id,
+ * sin tenerla entera en memoria.
+ */
+public interface PokemonPageSource {
+
+    /**
+     * Obtiene el número total de filas de la fuente.
+     *
+     * @return El número de filas.
+     */
+    int getRowCount();
+
+    /**
+     * Lee una página a partir de una posición. Se usa cuando no se conoce el id de la fila anterior.
+     *
+     * @param offset La posición de la primera fila de la página.
+     * @param limit  El número máximo de filas a leer.
+     * @return La página leída, que puede tener menos filas que el límite al final de la fuente.
+     */
+    PokemonPage loadPageAt(int offset, int limit);
+
+    /**
+     * Lee la página que empieza justo después de un id conocido (paginación por clave).
+     *
+     * @param afterId El id de la última fila de la página anterior.
+     * @param limit   El número máximo de filas a leer.
+     * @return La página leída, que puede tener menos filas que el límite al final de la fuente.
+     */
+    PokemonPage loadPageAfter(long afterId, int limit);
+}
@@ -0,0 +1,345 @@
+package models.swing;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase PokemonRowSorter que ordena y filtra las filas de un {@link PokemonTableModel} para una JTable.
+ * A diferencia de {@link javax.swing.table.TableRowSorter}, no compara los valores de getValueAt:
+ * cada columna por la que se ha ordenado alguna vez tiene un {@link PokemonColumnIndex} con sus valores en un array
+ * de primitivos y las filas ya ordenadas, que se mantiene al día con cada cambio del modelo.
+ * Cambiar el orden o el sentido solo recorre el índice de la columna.
+ * <p>
+ * Solo se tiene en cuenta la primera clave de ordenación. Las columnas numéricas se ordenan por su valor,
+ * el nombre y el tipo alfabéticamente sin distinguir mayúsculas, y los empates por su posición en el modelo.
+ */
+public class PokemonRowSorter extends RowSorter<PokemonTableModel> {
+
+    private final PokemonTableModel model;
+    private final PokemonColumnIndex[] indexes;
+    private final FilterEntry filterEntry = new FilterEntry();
+    private List<SortKey> sortKeys = Collections.emptyList();
+    private RowFilter<? super PokemonTableModel, ? super Integer> rowFilter;
+    private boolean[] included;
+    private int modelRowCount;
+    private int[] viewToModel;
+    private int[] modelToView;
+
+    /**
+     * Constructor de la clase PokemonRowSorter.
+     *
+     * @param model El modelo cuyas filas se ordenan.
+     */
+    public PokemonRowSorter(PokemonTableModel model) {
+        this.model = model;
+        this.indexes = new PokemonColumnIndex[model.getColumnCount()];
+        this.modelRowCount = model.getRowCount();
+    }
+
+    @Override
+    public PokemonTableModel getModel() {
+        return model;
+    }
+
+    /**
+     * Ordena por una columna en sentido ascendente, o invierte el sentido si ya se ordena por ella.
+     *
+     * @param column La columna del modelo.
+     */
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        SortOrder sortOrder = SortOrder.ASCENDING;
+        SortKey sortKey = getPrimarySortKey();
+        if (sortKey != null && sortKey.getColumn() == column && sortKey.getSortOrder() == SortOrder.ASCENDING) {
+            sortOrder = SortOrder.DESCENDING;
+        }
+        setSortKeys(Collections.singletonList(new SortKey(column, sortOrder)));
+    }
+
+    /**
+     * Cambia las claves de ordenación. La primera vez que se ordena por una columna se construye su índice;
+     * las siguientes solo se recorre.
+     *
+     * @param keys Las claves de ordenación, o null para mostrar las filas en el orden del modelo.
+     */
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> newSortKeys = keys == null ? Collections.<SortKey>emptyList()
+                : Collections.unmodifiableList(Arrays.asList(keys.toArray(new SortKey[0])));
+        for (SortKey key : newSortKeys) {
+            if (key == null) {
+                throw new IllegalArgumentException("Sort keys must not be null");
+            }
+            checkColumn(key.getColumn());
+        }
+        if (newSortKeys.equals(sortKeys)) {
+            return;
+        }
+        sortKeys = newSortKeys;
+        fireSortOrderChanged();
+        refreshView();
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    /**
+     * Cambia el filtro de las filas. El resultado del filtro se guarda por fila y solo se vuelve a evaluar
+     * para las filas que cambian.
+     *
+     * @param filter El filtro, o null para mostrar todas las filas.
+     */
+    public void setRowFilter(RowFilter<? super PokemonTableModel, ? super Integer> filter) {
+        rowFilter = filter;
+        if (filter == null) {
+            included = null;
+        } else {
+            included = new boolean[modelRowCount];
+            evaluateFilter(0, modelRowCount - 1);
+        }
+        refreshView();
+    }
+
+    public RowFilter<? super PokemonTableModel, ? super Integer> getRowFilter() {
+        return rowFilter;
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) {
+            if (index < 0 || index >= modelRowCount) {
+                throw new IndexOutOfBoundsException("Invalid index: " + index);
+            }
+            return index;
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (modelToView == null) {
+            if (index < 0 || index >= modelRowCount) {
+                throw new IndexOutOfBoundsException("Invalid index: " + index);
+            }
+            return index;
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel == null ? modelRowCount : viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return modelRowCount;
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        allRowsChanged();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        Arrays.fill(indexes, null);
+        modelRowCount = model.getRowCount();
+        if (rowFilter != null) {
+            included = new boolean[modelRowCount];
+            evaluateFilter(0, modelRowCount - 1);
+        }
+        refreshView();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        if (firstRow < 0 || endRow < firstRow || firstRow > modelRowCount) {
+            throw new IndexOutOfBoundsException("Invalid range: " + firstRow + ".." + endRow);
+        }
+        int count = endRow - firstRow + 1;
+        if (modelRowCount + count != model.getRowCount()) {
+            allRowsChanged();
+            return;
+        }
+        for (PokemonColumnIndex index : indexes) {
+            if (index != null) {
+                index.inserted(model, firstRow, endRow);
+            }
+        }
+        if (included != null) {
+            boolean[] shifted = included.length >= modelRowCount + count ? included
+                    : new boolean[Math.max(modelRowCount + count, included.length + (included.length >> 1))];
+            System.arraycopy(included, firstRow, shifted, endRow + 1, modelRowCount - firstRow);
+            if (shifted != included) {
+                System.arraycopy(included, 0, shifted, 0, firstRow);
+            }
+            included = shifted;
+        }
+        modelRowCount += count;
+        evaluateFilter(firstRow, endRow);
+        refreshView();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        if (firstRow < 0 || endRow >= modelRowCount || endRow < firstRow) {
+            throw new IndexOutOfBoundsException("Invalid range: " + firstRow + ".." + endRow);
+        }
+        int count = endRow - firstRow + 1;
+        if (modelRowCount - count != model.getRowCount()) {
+            allRowsChanged();
+            return;
+        }
+        for (PokemonColumnIndex index : indexes) {
+            if (index != null) {
+                index.deleted(firstRow, endRow);
+            }
+        }
+        if (included != null) {
+            System.arraycopy(included, endRow + 1, included, firstRow, modelRowCount - endRow - 1);
+        }
+        modelRowCount -= count;
+        refreshView();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        if (firstRow < 0 || endRow >= modelRowCount || endRow < firstRow) {
+            throw new IndexOutOfBoundsException("Invalid range: " + firstRow + ".." + endRow);
+        }
+        for (PokemonColumnIndex index : indexes) {
+            if (index != null) {
+                index.updated(model, firstRow, endRow);
+            }
+        }
+        evaluateFilter(firstRow, endRow);
+        refreshView();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        checkColumn(column);
+        rowsUpdated(firstRow, endRow);
+    }
+
+    private SortKey getPrimarySortKey() {
+        if (sortKeys.isEmpty() || sortKeys.get(0).getSortOrder() == SortOrder.UNSORTED) {
+            return null;
+        }
+        return sortKeys.get(0);
+    }
+
+    private PokemonColumnIndex getIndex(int column) {
+        if (indexes[column] == null) {
+            indexes[column] = new PokemonColumnIndex(column);
+            indexes[column].rebuild(model);
+        }
+        return indexes[column];
+    }
+
+    private void evaluateFilter(int firstRow, int lastRow) {
+        if (included == null) {
+            return;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            filterEntry.row = row;
+            included[row] = rowFilter.include(filterEntry);
+        }
+    }
+
+    /**
+     * Recalcula la correspondencia entre las filas de la vista y las del modelo recorriendo el índice de la columna
+     * de ordenación, o las filas del modelo si no se ordena, y avisa a la tabla con la correspondencia anterior.
+     * Sin orden ni filtro no hay correspondencia que calcular y no se toca ninguna fila.
+     */
+    private void refreshView() {
+        int[] previousViewToModel = viewToModel;
+        SortKey sortKey = getPrimarySortKey();
+        if (sortKey == null && included == null) {
+            viewToModel = null;
+            modelToView = null;
+        } else {
+            int[] rows = new int[modelRowCount];
+            int viewRowCount = 0;
+            if (sortKey == null) {
+                for (int row = 0; row < modelRowCount; row++) {
+                    if (included[row]) {
+                        rows[viewRowCount++] = row;
+                    }
+                }
+            } else if (sortKey.getSortOrder() == SortOrder.ASCENDING) {
+                PokemonColumnIndex index = getIndex(sortKey.getColumn());
+                for (int position = 0; position < modelRowCount; position++) {
+                    int row = index.rowAt(position);
+                    if (included == null || included[row]) {
+                        rows[viewRowCount++] = row;
+                    }
+                }
+            } else {
+                // En sentido descendente, las filas que empatan siguen en el orden del modelo
+                PokemonColumnIndex index = getIndex(sortKey.getColumn());
+                for (int last = modelRowCount - 1; last >= 0; ) {
+                    int first = last;
+                    while (first > 0 && index.sameKey(index.rowAt(first - 1), index.rowAt(last))) {
+                        first--;
+                    }
+                    for (int position = first; position <= last; position++) {
+                        int row = index.rowAt(position);
+                        if (included == null || included[row]) {
+                            rows[viewRowCount++] = row;
+                        }
+                    }
+                    last = first - 1;
+                }
+            }
+            viewToModel = viewRowCount == modelRowCount ? rows : Arrays.copyOf(rows, viewRowCount);
+            modelToView = new int[modelRowCount];
+            Arrays.fill(modelToView, -1);
+            for (int view = 0; view < viewRowCount; view++) {
+                modelToView[viewToModel[view]] = view;
+            }
+        }
+        if (previousViewToModel != null || viewToModel != null) {
+            fireRowSorterChanged(previousViewToModel);
+        }
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= indexes.length) {
+            throw new IndexOutOfBoundsException("Column " + column + " out of range 0.." + (indexes.length - 1));
+        }
+    }
+
+    /**
+     * Fila que se pasa al filtro. Se reutiliza la misma para todas las filas.
+     */
+    private class FilterEntry extends RowFilter.Entry<PokemonTableModel, Integer> {
+        private int row;
+
+        @Override
+        public PokemonTableModel getModel() {
+            return model;
+        }
+
+        @Override
+        public int getValueCount() {
+            return model.getColumnCount();
+        }
+
+        @Override
+        public Object getValue(int index) {
+            return model.getValueAt(row, index);
+        }
+
+        @Override
+        public Integer getIdentifier() {
+            return row;
+        }
+    }
+}
@@ -1,155 +1,853 @@
-package models.swing;
-
-import models.Pokemon;
-
-import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
-import java.util.List;
-
-public class PokemonTableModel extends AbstractTableModel {
-
-    private final List<Pokemon> pokemonList = new ArrayList<>();
-    private final String[] columnNames = {"Name", "Health", "Attack", "Defense", "Speed", "Type"};
-
-    /**
-     * Obtiene el número de filas en la tabla, que es igual al tamaño de la lista de Pokemon.
-     *
-     * @return El número de filas en la tabla.
-     */
-    @Override
-    public int getRowCount() {
-        return pokemonList.size();
-    }
-
-    /**
-     * Obtiene el número de columnas en la tabla, que es igual al tamaño del array de nombres de las columnas.
-     *
-     * @return El número de columnas en la tabla.
-     */
-    @Override
-    public int getColumnCount() {
-        return columnNames.length;
-    }
-
-    /**
-     * Obtiene el nombre de una columna en la tabla.
-     *
-     * @param column El índice de la columna.
-     * @return El nombre de la columna.
-     */
-    @Override
-    public String getColumnName(int column) {
-        return columnNames[column];
-    }
-
-    /**
-     * Obtiene el valor de una celda específica en la tabla.
-     *
-     * @param rowIndex El índice de la fila de la celda.
-     * @param columnIndex El índice de la columna de la celda.
-     * @return El objeto en la celda especificada.
-     */
-    @Override
-    public Object getValueAt(int rowIndex, int columnIndex) {
-        Pokemon pokemon = pokemonList.get(rowIndex);
-
-        switch (columnIndex) {
-            case 0:
-                return pokemon.getName();
-            case 1:
-                return pokemon.getHealth();
-            case 2:
-                return pokemon.getAttack();
-            case 3:
-                return pokemon.getDefense();
-            case 4:
-                return pokemon.getSpeed();
-            case 5:
-                return pokemon.getType().getDisplayName();
-            default:
-                return null;
-        }
-    }
-
-
-    /**
-     * Añade un Pokemon a la lista de Pokemon y actualiza la tabla.
-     *
-     * @param pokemon El Pokemon a añadir.
-     */
-    public void addPokemon(Pokemon pokemon) {
-        pokemonList.add(pokemon);
-        fireTableRowsInserted(pokemonList.size() - 1, pokemonList.size() - 1);
-    }
-    /**
-     * Elimina un Pokemon específico de la lista de Pokemon y actualiza la tabla.
-     *
-     * @param pokemon El Pokemon a eliminar.
-     */
-    public void removePokemon(Pokemon pokemon) {
-        int index = pokemonList.indexOf(pokemon);
-        pokemonList.remove(pokemon);
-        fireTableRowsDeleted(index, index);
-    }
-    /**
-     * Elimina un Pokemon en un índice específico de la lista de Pokemon y actualiza la tabla.
-     *
-     * @param index El índice del Pokemon a eliminar.
-     */
-    public void removePokemon(int index) {
-        pokemonList.remove(index);
-        fireTableRowsDeleted(index, index);
-    }
-    /**
-     * Obtiene un Pokemon en un índice específico de la lista de Pokemon.
-     *
-     * @param index El índice del Pokemon a obtener.
-     * @return El Pokemon en el índice especificado.
-     */
-    public Pokemon getPokemon(int index) {
-        return pokemonList.get(index);
-    }
-    /**
-     * Convierte la lista de Pokemon en un DefaultListModel.
-     *
-     * @return Un DefaultListModel que contiene todos los Pokemon en la lista.
-     */
-    public DefaultListModel<Pokemon> convertToListModel() {
-        DefaultListModel<Pokemon> listModel = new DefaultListModel<>();
-        for (Pokemon pokemon : pokemonList) {
-            listModel.addElement(pokemon);
-        }
-
-        return listModel;
-    }
-    /**
-     * Obtiene el índice de un Pokemon específico en la lista de Pokemon.
-     *
-     * @param pokemon El Pokemon cuyo índice se quiere obtener.
-     * @return El índice del Pokemon especificado, o -1 si el Pokemon no se encuentra en la lista.
-     */
-    public int indexOf(Pokemon pokemon) {
-        return pokemonList.indexOf(pokemon);
-    }
-    /**
-     * Inserta un Pokemon en un índice específico en la lista de Pokemon y actualiza la tabla.
-     *
-     * @param pokemon El Pokemon a insertar.
-     * @param index El índice en el que se debe insertar el Pokemon.
-     */
-    public void insertPokemonAt(Pokemon pokemon, int index) {
-        pokemonList.add(index, pokemon);
-        fireTableRowsInserted(index, index);
-    }
-
-    public List<Pokemon> getPokemonList() {
-        return pokemonList;
-    }
-
-    public void setPokemonList(List<Pokemon> pokemonList) {
-        this.pokemonList.clear();
-        this.pokemonList.addAll(pokemonList);
-        fireTableDataChanged();
-    }
-}
+package models.swing;
+
+import models.Pokemon;
+import models.PokemonChangeSet;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public class PokemonTableModel extends AbstractTableModel {
+
+    private final List<Pokemon> pokemonList = new ArrayList<>();
+    private final List<Long> rowIds = new ArrayList<>();
+    private final String[] columnNames = {"Name", "Health", "Attack", "Defense", "Speed", "Type"};
+
+    /**
+     * Cambios pendientes de guardar: filas insertadas o modificadas por id, e ids de filas eliminadas.
+     * Mientras fullSaveRequired sea true la lista no se ha sincronizado con la base de datos y se guarda entera.
+     */
+    private final Map<Long, Pokemon> dirtyRows = new HashMap<>();
+    private final Set<Long> deletedIds = new HashSet<>();
+    private boolean fullSaveRequired = true;
+    private long nextId;
+
+    /**
+     * Filas cargadas por páginas bajo demanda, o null si la lista está entera en memoria.
+     * Cualquier modificación carga antes todas las filas en la lista.
+     */
+    private PokemonPageCache pagedRows;
+
+    /**
+     * Fuente de las filas cargadas por páginas, o null si la lista está entera en memoria. Se publica aparte para
+     * que {@link #snapshot()} pueda leer las páginas desde otro hilo sin cargar todas las filas en el modelo.
+     */
+    private volatile PokemonPageSource pagedSource;
+
+    /**
+     * Índice de los nombres por id, para las búsquedas. Se invalida con los cambios masivos.
+     */
+    private final PokemonNameIndex nameIndex = new PokemonNameIndex();
+
+    /**
+     * Índice de las posiciones de las filas por id y de los ids por identidad del Pokemon.
+     */
+    private final RowPositionIndex positionIndex = new RowPositionIndex();
+
+    /**
+     * A partir de este número de filas, una operación masiva reconstruye el índice de nombres en lugar de actualizarlo fila a fila.
+     */
+    private static final int INCREMENTAL_NAME_INDEX_LIMIT = 64;
+
+    /**
+     * Número máximo de eventos de borrado que se envían al eliminar varias filas; si hay más rangos, se envía un único cambio completo.
+     */
+    private static final int MAX_DELETED_RANGE_EVENTS = 16;
+
+    /**
+     * Número de filas de cada página que se lee al copiar desde otro hilo unas filas cargadas por páginas.
+     */
+    private static final int SNAPSHOT_PAGE_SIZE = 4096;
+
+    /**
+     * Id que devuelve {@link #getRowId(int)} para una fila cargada por páginas que ya no está en la fuente,
+     * igual que {@link #getPokemon(int)} devuelve null. Ninguna fila real tiene un id negativo.
+     */
+    public static final long MISSING_ROW_ID = -1;
+
+    /**
+     * Estado de los cambios agrupados con {@link #batch(Consumer)}: la profundidad de anidamiento,
+     * el número de filas al empezar, el rango de filas existentes modificadas y si ha habido cambios de estructura
+     * que no se pueden expresar con un evento de inserción al final.
+     */
+    private int batchDepth;
+    private int batchStartRowCount;
+    private int batchFirstUpdatedRow;
+    private int batchLastUpdatedRow;
+    private boolean batchStructureChanged;
+
+    /**
+     * Copia de las filas para los otros hilos y versión del modelo, que aumenta con cada cambio.
+     * La copia se rehace en el hilo de eventos después de los cambios, como mucho una vez por vuelta del bucle de eventos.
+     */
+    private volatile RosterSnapshot snapshot = new RosterSnapshot(new Object[0], new Object[0], 0);
+    private volatile long version;
+    private boolean snapshotRefreshScheduled;
+
+    /**
+     * Cambios enviados desde otros hilos con {@link #post(Consumer)} que aún no se han aplicado en el hilo de eventos.
+     */
+    private final ConcurrentLinkedQueue<PendingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean pendingChangesScheduled = new AtomicBoolean();
+
+    /**
+     * Obtiene el número de filas en la tabla, que es igual al tamaño de la lista de Pokemon.
+     *
+     * @return El número de filas en la tabla.
+     */
+    @Override
+    public int getRowCount() {
+        return pagedRows != null ? pagedRows.size() : pokemonList.size();
+    }
+
+    /**
+     * Obtiene el número de columnas en la tabla, que es igual al tamaño del array de nombres de las columnas.
+     *
+     * @return El número de columnas en la tabla.
+     */
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * Obtiene el nombre de una columna en la tabla.
+     *
+     * @param column El índice de la columna.
+     * @return El nombre de la columna.
+     */
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * Obtiene el valor de una celda específica en la tabla.
+     *
+     * @param rowIndex El índice de la fila de la celda.
+     * @param columnIndex El índice de la columna de la celda.
+     * @return El objeto en la celda especificada.
+     */
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Pokemon pokemon = getPokemon(rowIndex);
+        if (pokemon == null) {
+            return null;
+        }
+
+        switch (columnIndex) {
+            case 0:
+                return pokemon.getName();
+            case 1:
+                return pokemon.getHealth();
+            case 2:
+                return pokemon.getAttack();
+            case 3:
+                return pokemon.getDefense();
+            case 4:
+                return pokemon.getSpeed();
+            case 5:
+                return pokemon.getType().getDisplayName();
+            default:
+                return null;
+        }
+    }
+
+
+    /**
+     * Añade un Pokemon a la lista de Pokemon y actualiza la tabla.
+     *
+     * @param pokemon El Pokemon a añadir.
+     */
+    public void addPokemon(Pokemon pokemon) {
+        materialize();
+        insertPokemonAt(pokemon, pokemonList.size());
+    }
+    /**
+     * Añade varios Pokemon al final de la lista y actualiza la tabla con un único evento de inserción.
+     *
+     * @param pokemons Los Pokemon a añadir, en orden.
+     */
+    public void addAll(Collection<? extends Pokemon> pokemons) {
+        materialize();
+        if (pokemons.size() > INCREMENTAL_NAME_INDEX_LIMIT) {
+            nameIndex.invalidate();
+        }
+        batch(model -> {
+            for (Pokemon pokemon : pokemons) {
+                insertPokemonAt(pokemon, pokemonList.size());
+            }
+        });
+    }
+    /**
+     * Elimina varios Pokemon, buscándolos por identidad, sin desplazar la lista una vez por cada fila.
+     * Se envía un evento de borrado por cada rango de filas contiguas, o un único cambio completo si hay muchos rangos.
+     *
+     * @param pokemons Los Pokemon a eliminar. Los que no están en la lista se ignoran.
+     * @return El número de filas eliminadas.
+     */
+    public int removeAll(Collection<? extends Pokemon> pokemons) {
+        materialize();
+        BitSet removedRows = new BitSet(pokemonList.size());
+        for (Pokemon pokemon : pokemons) {
+            int index = indexOf(pokemon);
+            if (index != -1) {
+                removedRows.set(index);
+            }
+        }
+        int removedCount = removedRows.cardinality();
+        if (removedCount == 0) {
+            return 0;
+        }
+        if (removedCount > INCREMENTAL_NAME_INDEX_LIMIT) {
+            nameIndex.invalidate();
+        }
+        positionIndex.invalidate();
+
+        for (int i = removedRows.nextSetBit(0); i >= 0; i = removedRows.nextSetBit(i + 1)) {
+            Long id = rowIds.get(i);
+            nameIndex.remove(id, pokemonList.get(i).getName());
+            dirtyRows.remove(id);
+            deletedIds.add(id);
+        }
+        removeRows(removedRows);
+        return removedCount;
+    }
+    /**
+     * Sustituye los Pokemon de varias filas consecutivas conservando sus ids y actualiza la tabla con un único evento.
+     *
+     * @param fromIndex El índice de la primera fila a sustituir.
+     * @param pokemons  Los nuevos Pokemon, uno por fila.
+     * @throws IndexOutOfBoundsException si las filas no existen.
+     */
+    public void replaceRange(int fromIndex, List<? extends Pokemon> pokemons) {
+        materialize();
+        if (fromIndex < 0 || fromIndex + pokemons.size() > pokemonList.size()) {
+            throw new IndexOutOfBoundsException("Range " + fromIndex + ".." + (fromIndex + pokemons.size())
+                    + " out of " + pokemonList.size() + " rows");
+        }
+        if (pokemons.size() > INCREMENTAL_NAME_INDEX_LIMIT) {
+            nameIndex.invalidate();
+        }
+        batch(model -> {
+            for (int i = 0; i < pokemons.size(); i++) {
+                replacePokemonAt(fromIndex + i, pokemons.get(i));
+            }
+        });
+    }
+    /**
+     * Aplica varios cambios al modelo y notifica a la tabla una sola vez al terminar, de forma que el ordenador
+     * de filas solo reordena una vez. Si los cambios solo añaden filas al final y modifican filas existentes, se envía
+     * un evento de actualización y otro de inserción; si no, un único cambio completo. Se puede anidar.
+     *
+     * @param changes Los cambios a aplicar.
+     */
+    public void batch(Consumer<PokemonTableModel> changes) {
+        if (batchDepth++ == 0) {
+            batchStartRowCount = getRowCount();
+            batchFirstUpdatedRow = Integer.MAX_VALUE;
+            batchLastUpdatedRow = -1;
+            batchStructureChanged = false;
+        }
+        try {
+            changes.accept(this);
+        } finally {
+            if (--batchDepth == 0) {
+                fireBatchEvents();
+            }
+        }
+    }
+    /**
+     * Envía el evento a los listeners, o lo acumula si se están agrupando cambios con {@link #batch(Consumer)}.
+     *
+     * @param event El evento.
+     */
+    @Override
+    public void fireTableChanged(TableModelEvent event) {
+        invalidateSnapshot();
+        if (batchDepth == 0) {
+            super.fireTableChanged(event);
+            return;
+        }
+        int firstRow = event.getFirstRow();
+        int lastRow = event.getLastRow();
+        if (firstRow == TableModelEvent.HEADER_ROW || lastRow == Integer.MAX_VALUE) {
+            batchStructureChanged = true;
+        } else if (event.getType() == TableModelEvent.UPDATE) {
+            // Las filas añadidas en el lote ya van en el evento de inserción
+            if (firstRow < batchStartRowCount) {
+                batchFirstUpdatedRow = Math.min(batchFirstUpdatedRow, firstRow);
+                batchLastUpdatedRow = Math.max(batchLastUpdatedRow, Math.min(lastRow, batchStartRowCount - 1));
+            }
+        } else if (firstRow < batchStartRowCount) {
+            // Insertar o borrar entre las filas que ya existían desplaza las siguientes
+            batchStructureChanged = true;
+        }
+    }
+    /**
+     * Elimina un Pokemon específico de la lista de Pokemon y actualiza la tabla.
+     * El Pokemon se busca por identidad, así que un clon con las mismas estadísticas no se elimina en su lugar.
+     *
+     * @param pokemon El Pokemon a eliminar.
+     */
+    public void removePokemon(Pokemon pokemon) {
+        int index = indexOf(pokemon);
+        if (index != -1) {
+            removePokemon(index);
+        }
+    }
+    /**
+     * Elimina un Pokemon en un índice específico de la lista de Pokemon y actualiza la tabla.
+     *
+     * @param index El índice del Pokemon a eliminar.
+     */
+    public void removePokemon(int index) {
+        materialize();
+        Pokemon removed = pokemonList.remove(index);
+        Long id = rowIds.remove(index);
+        nameIndex.remove(id, removed.getName());
+        positionIndex.removed(id, removed, index);
+        dirtyRows.remove(id);
+        deletedIds.add(id);
+        fireTableRowsDeleted(index, index);
+    }
+    /**
+     * Sustituye el Pokemon en un índice específico conservando el id de la fila y actualiza la tabla.
+     *
+     * @param index   El índice del Pokemon a sustituir.
+     * @param pokemon El nuevo Pokemon.
+     */
+    public void replacePokemonAt(int index, Pokemon pokemon) {
+        materialize();
+        Pokemon replaced = pokemonList.set(index, pokemon);
+        long id = rowIds.get(index);
+        nameIndex.remove(id, replaced.getName());
+        nameIndex.add(id, pokemon.getName());
+        positionIndex.replaced(id, replaced, pokemon);
+        dirtyRows.put(id, pokemon);
+        fireTableRowsUpdated(index, index);
+    }
+    /**
+     * Sustituye el Pokemon de la fila con un id específico y actualiza solo esa fila de la tabla.
+     *
+     * @param rowId   El id de la fila.
+     * @param pokemon El nuevo Pokemon.
+     * @return true si la fila existe y se ha sustituido.
+     */
+    public boolean replacePokemonById(long rowId, Pokemon pokemon) {
+        int index = indexOfRowId(rowId);
+        if (index == -1) {
+            return false;
+        }
+        replacePokemonAt(index, pokemon);
+        return true;
+    }
+    /**
+     * Obtiene la posición de la fila con un id específico sin recorrer la lista.
+     *
+     * @param rowId El id de la fila.
+     * @return El índice de la fila, o -1 si no hay ninguna fila con ese id.
+     */
+    public int indexOfRowId(long rowId) {
+        materialize();
+        return positionIndex.positionOf(rowId, rowIds, pokemonList);
+    }
+    /**
+     * Obtiene el id estable de la fila en un índice específico.
+     *
+     * @param index El índice de la fila.
+     * @return El id de la fila, que no cambia al insertar o eliminar otras filas, o {@link #MISSING_ROW_ID} si las
+     * filas se cargan por páginas y la fuente ya no tiene esa fila.
+     */
+    public long getRowId(int index) {
+        if (pagedRows != null) {
+            return pagedRows.getRowId(index);
+        }
+        return rowIds.get(index);
+    }
+    /**
+     * Obtiene un Pokemon en un índice específico de la lista de Pokemon.
+     *
+     * @param index El índice del Pokemon a obtener.
+     * @return El Pokemon en el índice especificado, o null si las filas se cargan por páginas y la fuente ya no lo tiene.
+     */
+    public Pokemon getPokemon(int index) {
+        if (pagedRows != null) {
+            return pagedRows.getPokemon(index);
+        }
+        return pokemonList.get(index);
+    }
+    /**
+     * Obtiene el índice de un Pokemon específico en la lista de Pokemon.
+     * Se busca por identidad y no por equals: un clon con las mismas estadísticas es otra fila.
+     *
+     * @param pokemon El Pokemon cuyo índice se quiere obtener.
+     * @return El índice del Pokemon especificado, o -1 si el Pokemon no se encuentra en la lista.
+     */
+    public int indexOf(Pokemon pokemon) {
+        materialize();
+        Long id = positionIndex.idOf(pokemon, rowIds, pokemonList);
+        return id == null ? -1 : positionIndex.positionOf(id, rowIds, pokemonList);
+    }
+    /**
+     * Inserta un Pokemon en un índice específico en la lista de Pokemon y actualiza la tabla.
+     *
+     * @param pokemon El Pokemon a insertar.
+     * @param index El índice en el que se debe insertar el Pokemon.
+     */
+    public void insertPokemonAt(Pokemon pokemon, int index) {
+        materialize();
+        long id = nextId++;
+        pokemonList.add(index, pokemon);
+        rowIds.add(index, id);
+        nameIndex.add(id, pokemon.getName());
+        positionIndex.inserted(id, pokemon, index, pokemonList.size());
+        dirtyRows.put(id, pokemon);
+        fireTableRowsInserted(index, index);
+    }
+
+    /**
+     * Obtiene una copia inmutable de las filas que se puede leer desde cualquier hilo.
+     * En el hilo de eventos la copia tiene siempre las filas actuales, y si se están cargando por páginas antes
+     * se cargan todas. Desde otro hilo se devuelve sin bloquear la última copia, que se rehace en cuanto el hilo
+     * de eventos termina de aplicar cada tanda de cambios. Si el modelo ha cambiado y aún no se ha rehecho, se espera
+     * a que el hilo de eventos la haga, y si las filas se están cargando por páginas se leen de su fuente en el hilo
+     * que llama, sin cargarlas en el modelo ni bloquear el hilo de eventos. Por eso no se debe llamar desde un hilo
+     * al que esté esperando el hilo de eventos.
+     *
+     * @return La copia de las filas.
+     */
+    public RosterSnapshot snapshot() {
+        RosterSnapshot current = snapshot;
+        if (current.getVersion() == version) {
+            return current;
+        }
+        if (SwingUtilities.isEventDispatchThread()) {
+            return refreshSnapshot(true);
+        }
+        while (true) {
+            long expectedVersion = version;
+            PokemonPageSource source = pagedSource;
+            if (source != null) {
+                RosterSnapshot loaded = readSnapshot(source, expectedVersion);
+                if (version == expectedVersion) {
+                    return loaded;
+                }
+                // Las filas han cambiado mientras se leían: se vuelve a empezar con las nuevas
+                continue;
+            }
+            RosterSnapshot[] refreshed = new RosterSnapshot[1];
+            try {
+                SwingUtilities.invokeAndWait(() -> {
+                    if (pagedRows == null) {
+                        refreshed[0] = refreshSnapshot(false);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return current;
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getCause());
+            }
+            if (refreshed[0] != null) {
+                return refreshed[0];
+            }
+        }
+    }
+
+    /**
+     * Lee todas las filas de una fuente paginada, recorriéndola por clave, y las copia sin pasar por el modelo.
+     */
+    private static RosterSnapshot readSnapshot(PokemonPageSource source, long version) {
+        List<Pokemon> pokemons = new ArrayList<>(source.getRowCount());
+        List<Long> ids = new ArrayList<>(source.getRowCount());
+        PokemonPage page = source.loadPageAt(0, SNAPSHOT_PAGE_SIZE);
+        while (page.size() > 0) {
+            for (int i = 0; i < page.size(); i++) {
+                pokemons.add(page.getPokemon(i));
+                ids.add(page.getId(i));
+            }
+            if (page.size() < SNAPSHOT_PAGE_SIZE) {
+                break;
+            }
+            page = source.loadPageAfter(page.getLastId(), SNAPSHOT_PAGE_SIZE);
+        }
+        return new RosterSnapshot(pokemons.toArray(), ids.toArray(), version);
+    }
+
+    /**
+     * Envía un cambio del modelo desde cualquier hilo. Los cambios se aplican en el hilo de eventos, en el orden en
+     * el que se envían, y todos los que haya pendientes en ese momento se aplican dentro de un mismo
+     * {@link #batch(Consumer)}, así que la tabla se notifica y se reordena una vez por tanda y no una por cambio.
+     *
+     * @param change El cambio a aplicar.
+     * @return Un futuro que se completa cuando la tanda del cambio se ha aplicado y notificado, o con la excepción
+     * del cambio si ha fallado.
+     */
+    public CompletableFuture<Void> post(Consumer<PokemonTableModel> change) {
+        PendingChange pending = new PendingChange(change);
+        pendingChanges.add(pending);
+        if (pendingChangesScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::applyPendingChanges);
+        }
+        return pending.done;
+    }
+
+    /**
+     * Aplica los cambios enviados con {@link #post(Consumer)}. Si un cambio falla se sigue con los demás,
+     * y al terminar la tanda se completa el futuro de cada cambio con su resultado.
+     */
+    private void applyPendingChanges() {
+        pendingChangesScheduled.set(false);
+        List<PendingChange> applied = new ArrayList<>();
+        try {
+            batch(model -> {
+                PendingChange pending;
+                while ((pending = pendingChanges.poll()) != null) {
+                    applied.add(pending);
+                    try {
+                        pending.change.accept(model);
+                    } catch (RuntimeException e) {
+                        pending.failure = e;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Ha fallado la notificación de la tanda: ningún cambio se ha mostrado bien
+            for (PendingChange pending : applied) {
+                if (pending.failure == null) {
+                    pending.failure = e;
+                }
+            }
+        }
+        for (PendingChange pending : applied) {
+            if (pending.failure == null) {
+                pending.done.complete(null);
+            } else {
+                pending.done.completeExceptionally(pending.failure);
+            }
+        }
+    }
+
+    /**
+     * Marca la copia de las filas como desactualizada y programa que se rehaga después de los cambios en curso.
+     */
+    private void invalidateSnapshot() {
+        version++;
+        if (!snapshotRefreshScheduled) {
+            snapshotRefreshScheduled = true;
+            SwingUtilities.invokeLater(() -> {
+                snapshotRefreshScheduled = false;
+                refreshSnapshot(false);
+            });
+        }
+    }
+
+    /**
+     * Rehace la copia de las filas si está desactualizada. Solo copia las referencias a los Pokemon y a los ids.
+     *
+     * @param materialize true para cargar antes todas las filas si se están cargando por páginas; si es false
+     *                    y se están cargando por páginas, la copia se deja como está.
+     * @return La copia, actualizada si se ha podido.
+     */
+    private RosterSnapshot refreshSnapshot(boolean materialize) {
+        if (materialize) {
+            materialize();
+        }
+        RosterSnapshot current = snapshot;
+        if (current.getVersion() != version && pagedRows == null) {
+            current = new RosterSnapshot(pokemonList.toArray(), rowIds.toArray(), version);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private void fireBatchEvents() {
+        if (batchStructureChanged) {
+            super.fireTableChanged(new TableModelEvent(this));
+            return;
+        }
+        if (batchFirstUpdatedRow <= batchLastUpdatedRow) {
+            super.fireTableChanged(new TableModelEvent(this, batchFirstUpdatedRow, batchLastUpdatedRow,
+                    TableModelEvent.ALL_COLUMNS, TableModelEvent.UPDATE));
+        }
+        if (getRowCount() > batchStartRowCount) {
+            super.fireTableChanged(new TableModelEvent(this, batchStartRowCount, getRowCount() - 1,
+                    TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
+        }
+    }
+
+    /**
+     * Quita de la lista las filas marcadas y lo notifica. Con pocos rangos de filas contiguas, cada rango se quita
+     * y se notifica por separado, de mayor a menor, para que cada evento describa el estado de la lista en ese momento.
+     * Con muchos rangos, las filas que se quedan se compactan en una sola pasada y se notifica un cambio completo.
+     */
+    private void removeRows(BitSet removedRows) {
+        int ranges = 0;
+        for (int start = removedRows.nextSetBit(0); start >= 0; start = removedRows.nextSetBit(removedRows.nextClearBit(start))) {
+            ranges++;
+        }
+        if (ranges <= MAX_DELETED_RANGE_EVENTS) {
+            for (int end = removedRows.length() - 1; end >= 0; ) {
+                int start = removedRows.previousClearBit(end) + 1;
+                pokemonList.subList(start, end + 1).clear();
+                rowIds.subList(start, end + 1).clear();
+                fireTableRowsDeleted(start, end);
+                end = removedRows.previousSetBit(start - 1);
+            }
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < pokemonList.size(); i++) {
+            if (!removedRows.get(i)) {
+                pokemonList.set(kept, pokemonList.get(i));
+                rowIds.set(kept, rowIds.get(i));
+                kept++;
+            }
+        }
+        pokemonList.subList(kept, pokemonList.size()).clear();
+        rowIds.subList(kept, rowIds.size()).clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Busca las filas por nombre en el índice de nombres, reconstruyéndolo antes si hace falta.
+     * Si las filas se están cargando por páginas, primero se cargan todas.
+     *
+     * @param query El texto por el que empiezan los nombres, sin distinguir mayúsculas.
+     * @param fuzzy true para incluir también los nombres parecidos.
+     * @return Los ids de las filas que coinciden.
+     */
+    public PokemonNameIndex.Matches findByName(String query, boolean fuzzy) {
+        materialize();
+        if (!nameIndex.isValid()) {
+            nameIndex.rebuild(rowIds, pokemonList);
+        }
+        return nameIndex.find(query, fuzzy);
+    }
+
+    public List<Pokemon> getPokemonList() {
+        materialize();
+        return pokemonList;
+    }
+
+    /**
+     * Sustituye toda la lista de Pokemon por otra con ids nuevos.
+     * La lista deja de estar sincronizada con la base de datos, por lo que el siguiente guardado será completo.
+     *
+     * @param pokemonList La nueva lista de Pokemon.
+     */
+    public void setPokemonList(List<Pokemon> pokemonList) {
+        clearRows();
+        for (Pokemon pokemon : pokemonList) {
+            this.pokemonList.add(pokemon);
+            this.rowIds.add(nextId++);
+        }
+        fullSaveRequired = true;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Sustituye toda la lista de Pokemon por las filas leídas de la base de datos.
+     * Las filas conservan sus ids y no quedan cambios pendientes.
+     *
+     * @param pokemonRows Los Pokemon leídos, por id, en el orden en el que se mostrarán.
+     */
+    public void setPokemonRows(Map<Long, Pokemon> pokemonRows) {
+        clearRows();
+        nextId = 0;
+        for (Map.Entry<Long, Pokemon> row : pokemonRows.entrySet()) {
+            pokemonList.add(row.getValue());
+            rowIds.add(row.getKey());
+            nextId = Math.max(nextId, row.getKey() + 1);
+        }
+        fullSaveRequired = false;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Añade al final de la lista una página de filas leídas de la base de datos, por ejemplo durante una
+     * carga por partes. Las filas conservan sus ids y no quedan como cambios pendientes.
+     *
+     * @param page La página de filas leídas.
+     */
+    public void appendRows(PokemonPage page) {
+        materialize();
+        if (page.size() == 0) {
+            return;
+        }
+        int firstRow = pokemonList.size();
+        nameIndex.invalidate();
+        positionIndex.invalidate();
+        for (int i = 0; i < page.size(); i++) {
+            pokemonList.add(page.getPokemon(i));
+            rowIds.add(page.getId(i));
+            nextId = Math.max(nextId, page.getId(i) + 1);
+        }
+        fireTableRowsInserted(firstRow, pokemonList.size() - 1);
+    }
+
+    /**
+     * Sustituye toda la lista de Pokemon por las filas de una fuente paginada.
+     * Solo se leen las páginas que se muestran y se guardan como mucho maxCachedPages en memoria.
+     * No quedan cambios pendientes.
+     *
+     * @param source         La fuente de las páginas, ordenada por id.
+     * @param pageSize       El número de filas de cada página.
+     * @param maxCachedPages El número máximo de páginas en memoria.
+     */
+    public void setPokemonPages(PokemonPageSource source, int pageSize, int maxCachedPages) {
+        setPokemonPages(source, pageSize, maxCachedPages, true);
+    }
+
+    /**
+     * Sustituye toda la lista de Pokemon por las filas de una fuente paginada que puede no ser la base de datos,
+     * como un fichero de roster. Si la fuente no está sincronizada con la base de datos, el siguiente guardado
+     * carga todas las filas y las guarda enteras.
+     *
+     * @param source         La fuente de las páginas, ordenada por id.
+     * @param pageSize       El número de filas de cada página.
+     * @param maxCachedPages El número máximo de páginas en memoria.
+     * @param inDatabase     true si las filas de la fuente son las que hay en la base de datos.
+     */
+    public void setPokemonPages(PokemonPageSource source, int pageSize, int maxCachedPages, boolean inDatabase) {
+        clearRows();
+        pagedRows = new PokemonPageCache(source, pageSize, maxCachedPages);
+        pagedSource = source;
+        fullSaveRequired = !inDatabase;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Indica si las filas se están cargando por páginas bajo demanda.
+     *
+     * @return true si la lista no está entera en memoria.
+     */
+    public boolean isPaged() {
+        return pagedRows != null;
+    }
+
+    /**
+     * Carga en memoria todas las filas de la fuente paginada, recorriéndola por clave sin pasar por la caché.
+     * No hace nada si la lista ya está en memoria. Si las filas leídas coinciden con las mostradas no se notifica a la tabla.
+     */
+    public void materialize() {
+        if (pagedRows == null) {
+            return;
+        }
+        PokemonPageCache pages = pagedRows;
+        pagedRows = null;
+        pagedSource = null;
+        nameIndex.invalidate();
+        positionIndex.invalidate();
+        int pageCount = (pages.size() + pages.getPageSize() - 1) / pages.getPageSize();
+        nextId = 0;
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+            PokemonPage page = pages.loadUncached(pageIndex);
+            for (int i = 0; i < page.size(); i++) {
+                pokemonList.add(page.getPokemon(i));
+                rowIds.add(page.getId(i));
+                nextId = Math.max(nextId, page.getId(i) + 1);
+            }
+        }
+        if (pokemonList.size() != pages.size()) {
+            fireTableDataChanged();
+        } else {
+            invalidateSnapshot();
+        }
+    }
+
+    /**
+     * Obtiene los cambios pendientes de guardar desde la última carga o el último guardado.
+     * Si hay que guardar la lista entera y se está cargando por páginas, primero se cargan todas las filas.
+     *
+     * @return Una copia de los cambios pendientes.
+     */
+    public PokemonChangeSet getChangeSet() {
+        if (fullSaveRequired) {
+            materialize();
+            Map<Long, Pokemon> allRows = new LinkedHashMap<>();
+            for (int i = 0; i < pokemonList.size(); i++) {
+                allRows.put(rowIds.get(i), pokemonList.get(i));
+            }
+            return new PokemonChangeSet(allRows, Collections.<Long>emptySet(), true);
+        }
+        return new PokemonChangeSet(dirtyRows, deletedIds, false);
+    }
+
+    /**
+     * Marca como guardados los cambios de un conjunto ya escrito en la base de datos.
+     * Las filas modificadas de nuevo después de obtener el conjunto siguen pendientes.
+     *
+     * @param changeSet El conjunto de cambios que se ha guardado.
+     */
+    public void markSaved(PokemonChangeSet changeSet) {
+        for (Map.Entry<Long, Pokemon> upsert : changeSet.getUpserts().entrySet()) {
+            if (dirtyRows.get(upsert.getKey()) == upsert.getValue()) {
+                dirtyRows.remove(upsert.getKey());
+            }
+        }
+        deletedIds.removeAll(changeSet.getDeletes());
+        if (changeSet.isFullReplace()) {
+            // La tabla se vació antes de escribir: solo hay que borrar las filas escritas que se eliminaron después
+            deletedIds.retainAll(changeSet.getUpserts().keySet());
+            fullSaveRequired = false;
+        }
+    }
+
+    /**
+     * Marca las filas como no sincronizadas con la base de datos, por ejemplo después de sustituir la base de datos
+     * por otra lista. El siguiente guardado escribe todas las filas en lugar de solo los cambios pendientes.
+     */
+    public void markDetached() {
+        fullSaveRequired = true;
+    }
+
+    /**
+     * Indica si hay cambios pendientes de guardar.
+     *
+     * @return true si hay filas insertadas, modificadas o eliminadas sin guardar.
+     */
+    public boolean hasUnsavedChanges() {
+        return fullSaveRequired || !dirtyRows.isEmpty() || !deletedIds.isEmpty();
+    }
+
+    private void clearRows() {
+        pagedRows = null;
+        pagedSource = null;
+        nameIndex.invalidate();
+        positionIndex.invalidate();
+        pokemonList.clear();
+        rowIds.clear();
+        dirtyRows.clear();
+        deletedIds.clear();
+    }
+
+    /**
+     * Cambio enviado con {@link #post(Consumer)}, con el futuro que avisa a quien lo envió.
+     */
+    private static class PendingChange {
+        private final Consumer<PokemonTableModel> change;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private RuntimeException failure;
+
+        PendingChange(Consumer<PokemonTableModel> change) {
+            this.change = change;
+        }
+    }
+}
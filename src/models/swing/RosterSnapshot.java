@@ -0,0 +1,70 @@
+package models.swing;
+
+import models.Pokemon;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Clase RosterSnapshot que representa una copia inmutable de las filas de un {@link PokemonTableModel}
+ * en un momento dado: los Pokemon y los ids de sus filas, en el orden del modelo.
+ * <p>
+ * Como los Pokemon no cambian, la copia solo guarda las referencias, y se puede leer desde cualquier hilo sin
+ * sincronizar mientras el modelo sigue cambiando en el hilo de eventos.
+ */
+public final class RosterSnapshot {
+
+    private final Object[] pokemons;
+    private final Object[] rowIds;
+    private final long version;
+
+    RosterSnapshot(Object[] pokemons, Object[] rowIds, long version) {
+        this.pokemons = pokemons;
+        this.rowIds = rowIds;
+        this.version = version;
+    }
+
+    public int size() {
+        return pokemons.length;
+    }
+
+    public Pokemon getPokemon(int index) {
+        return (Pokemon) pokemons[index];
+    }
+
+    public long getRowId(int index) {
+        return (Long) rowIds[index];
+    }
+
+    /**
+     * Obtiene la versión del modelo copiada. Cada cambio del modelo aumenta la versión,
+     * así que dos copias con la misma versión tienen las mismas filas.
+     *
+     * @return La versión del modelo.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Devuelve una lista de solo lectura con los Pokemon de la copia, sin copiarlos.
+     *
+     * @return La lista de Pokemon.
+     */
+    public List<Pokemon> asList() {
+        return new PokemonList();
+    }
+
+    private class PokemonList extends AbstractList<Pokemon> implements RandomAccess {
+        @Override
+        public Pokemon get(int index) {
+            return getPokemon(index);
+        }
+
+        @Override
+        public int size() {
+            return pokemons.length;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package models.swing;
+
+import models.Pokemon;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase RowPositionIndex que permite encontrar la posición de una fila de un {@link PokemonTableModel}
+ * por su id, y el id de una fila por la identidad de su Pokemon, sin recorrer la lista.
+ * <p>
+ * Las posiciones se guardan en una tabla hash abierta de primitivos. Insertar o eliminar una fila desplaza las siguientes,
+ * así que en lugar de corregirlas todas se recuerda desde qué posición pueden estar desactualizadas: una búsqueda
+ * que encuentra una posición comprobada la devuelve directamente, y si no, reindexa solo desde ese punto.
+ * El índice se construye la primera vez que se usa y se descarta con los cambios masivos.
+ */
+class RowPositionIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] positions;
+    private int count;
+    private boolean built;
+    private int validUpTo;
+    private Map<Pokemon, Long> idsByPokemon;
+
+    /**
+     * Obtiene la posición actual de una fila.
+     *
+     * @param id       El id de la fila.
+     * @param rowIds   Los ids de las filas del modelo, en orden.
+     * @param pokemons Los Pokemon de las filas, en el mismo orden.
+     * @return La posición, o -1 si no hay ninguna fila con ese id.
+     */
+    int positionOf(long id, List<Long> rowIds, List<Pokemon> pokemons) {
+        ensureBuilt(rowIds, pokemons);
+        int position = get(id);
+        if (position >= 0 && position < rowIds.size() && rowIds.get(position) == id) {
+            return position;
+        }
+        if (validUpTo < rowIds.size()) {
+            for (int i = validUpTo; i < rowIds.size(); i++) {
+                put(rowIds.get(i), i);
+            }
+            validUpTo = rowIds.size();
+            position = get(id);
+        }
+        return position >= 0 && position < rowIds.size() && rowIds.get(position) == id ? position : -1;
+    }
+
+    /**
+     * Obtiene el id de la fila que contiene exactamente este objeto Pokemon. Se compara la identidad, no equals,
+     * así que un clon con las mismas estadísticas no se confunde con el original.
+     *
+     * @param pokemon  El Pokemon.
+     * @param rowIds   Los ids de las filas del modelo, en orden.
+     * @param pokemons Los Pokemon de las filas, en el mismo orden.
+     * @return El id, o null si el Pokemon no está en el modelo.
+     */
+    Long idOf(Pokemon pokemon, List<Long> rowIds, List<Pokemon> pokemons) {
+        ensureBuilt(rowIds, pokemons);
+        return idsByPokemon.get(pokemon);
+    }
+
+    /**
+     * Registra una fila insertada en una posición. Las filas siguientes quedan pendientes de reindexar.
+     *
+     * @param id      El id de la fila.
+     * @param pokemon El Pokemon de la fila.
+     * @param index   La posición en la que se ha insertado.
+     * @param size    El número de filas después de insertarla.
+     */
+    void inserted(long id, Pokemon pokemon, int index, int size) {
+        if (!built) {
+            return;
+        }
+        put(id, index);
+        idsByPokemon.put(pokemon, id);
+        if (index < size - 1) {
+            validUpTo = Math.min(validUpTo, index);
+        } else if (validUpTo == index) {
+            validUpTo = size;
+        }
+    }
+
+    /**
+     * Registra una fila eliminada. Las filas siguientes quedan pendientes de reindexar.
+     *
+     * @param id      El id de la fila.
+     * @param pokemon El Pokemon que tenía la fila.
+     * @param index   La posición que ocupaba.
+     */
+    void removed(long id, Pokemon pokemon, int index) {
+        if (!built) {
+            return;
+        }
+        remove(id);
+        idsByPokemon.remove(pokemon, id);
+        validUpTo = Math.min(validUpTo, index);
+    }
+
+    /**
+     * Registra que el Pokemon de una fila se ha sustituido por otro. La posición no cambia.
+     *
+     * @param id       El id de la fila.
+     * @param replaced El Pokemon anterior.
+     * @param pokemon  El Pokemon nuevo.
+     */
+    void replaced(long id, Pokemon replaced, Pokemon pokemon) {
+        if (!built) {
+            return;
+        }
+        idsByPokemon.remove(replaced, id);
+        idsByPokemon.put(pokemon, id);
+    }
+
+    /**
+     * Descarta el índice, que se volverá a construir en la siguiente búsqueda.
+     */
+    void invalidate() {
+        built = false;
+        keys = null;
+        positions = null;
+        idsByPokemon = null;
+        count = 0;
+    }
+
+    private void ensureBuilt(List<Long> rowIds, List<Pokemon> pokemons) {
+        if (built) {
+            return;
+        }
+        int size = rowIds.size();
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        positions = new int[capacity];
+        count = 0;
+        idsByPokemon = new IdentityHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            put(rowIds.get(i), i);
+            idsByPokemon.put(pokemons.get(i), rowIds.get(i));
+        }
+        validUpTo = size;
+        built = true;
+    }
+
+    private int get(long id) {
+        int mask = keys.length - 1;
+        for (int slot = hash(id) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return positions[slot];
+            }
+        }
+        return -1;
+    }
+
+    private void put(long id, int position) {
+        if ((count + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = id;
+            count++;
+        }
+        positions[slot] = position;
+    }
+
+    /**
+     * Elimina una clave desplazando hacia atrás las siguientes del mismo grupo, para no dejar marcas de borrado.
+     */
+    private void remove(long id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (keys[slot] != id) {
+            if (keys[slot] == EMPTY) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        count--;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // La clave de next puede ocupar el hueco si su posición ideal no está entre el hueco y next
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                positions[slot] = positions[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldPositions = positions;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        positions = new int[capacity];
+        count = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldPositions[i]);
+            }
+        }
+    }
+
+    private static int hash(long id) {
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}